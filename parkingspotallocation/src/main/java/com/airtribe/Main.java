@@ -1,8 +1,17 @@
 package com.airtribe;
 
+import com.airtribe.cluster.GossipCoordinator;
+import com.airtribe.cluster.ShardNode;
+import com.airtribe.cluster.ShardRouter;
 import com.airtribe.entity.*;
+import com.airtribe.layout.LayoutLoader;
+import com.airtribe.layout.ParkingLayout;
 import com.airtribe.service.ParkingLot;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
 /**
  * Main class demonstrating the Smart Parking Lot System.
  * Showcases all functional requirements:
@@ -18,11 +27,20 @@ public class Main {
         System.out.println("║      SMART PARKING LOT MANAGEMENT SYSTEM        ║");
         System.out.println("╚══════════════════════════════════════════════════╝\n");
         
-        // Initialize parking lot with 3 floors
-        ParkingLot parkingLot = ParkingLot.getInstance("Downtown Parking", 3);
-        
-        // Setup parking spots on each floor
-        setupParkingSpots(parkingLot);
+        ParkingLot parkingLot;
+        if (args.length > 0) {
+            // Load the layout file given on the command line, e.g. layouts/downtown.csv
+            parkingLot = loadParkingLot(Path.of(args[0]));
+            if (parkingLot == null) {
+                return;
+            }
+        } else {
+            // Initialize parking lot with 3 floors
+            parkingLot = ParkingLot.getInstance("Downtown Parking", 3);
+            
+            // Setup parking spots on each floor
+            setupParkingSpots(parkingLot);
+        }
         
         // Display initial availability
         System.out.println("\n>>> INITIAL PARKING LOT STATUS");
@@ -37,6 +55,29 @@ public class Main {
         // Display final status
         System.out.println("\n>>> FINAL PARKING LOT STATUS");
         parkingLot.displayAvailability();
+        
+        // Demonstrate a lot partitioned across shard nodes
+        demonstrateShardedParking();
+    }
+    
+    /**
+     * Creates the parking lot from a CSV layout or binary layout image.
+     */
+    private static ParkingLot loadParkingLot(Path layoutFile) {
+        System.out.println(">>> LOADING PARKING LOT LAYOUT: " + layoutFile);
+        try {
+            long start = System.nanoTime();
+            ParkingLayout layout = LayoutLoader.load(layoutFile);
+            ParkingLot parkingLot = ParkingLot.getInstance("Downtown Parking",
+                    layout.getFirstFloorNumber() + layout.getFloorCount() - 1);
+            layout.applyTo(parkingLot);
+            System.out.println("✓ Layout loaded in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            System.out.println("  Total spots: " + parkingLot.getTotalSpots());
+            return parkingLot;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not load layout " + layoutFile + ": " + e.getMessage());
+            return null;
+        }
     }
     
     /**
@@ -196,4 +237,35 @@ public class Main {
         
         System.out.println("\n✓ All concurrent operations completed successfully!");
     }
-}
\ No newline at end of file
+    
+    /**
+     * Demonstrates a lot split across in-process shard nodes behind a router.
+     */
+    private static void demonstrateShardedParking() {
+        System.out.println("\n\n>>> DEMONSTRATION: SHARDED PARKING LOT");
+        System.out.println("=".repeat(50));
+        
+        // Two shards, each owning one floor with a single medium spot
+        ShardNode shard1 = new ShardNode(1, "Airport Parking", 1, 1);
+        ShardNode shard2 = new ShardNode(2, "Airport Parking", 2, 1);
+        shard1.addParkingSpot(1, new ParkingSpot("F1-M1", SpotSize.MEDIUM, 1));
+        shard2.addParkingSpot(2, new ParkingSpot("F2-M1", SpotSize.MEDIUM, 2));
+        
+        ShardRouter router = new ShardRouter(List.of(shard1, shard2));
+        GossipCoordinator gossip = new GossipCoordinator(List.of(shard1, shard2), List.of(router));
+        
+        // The second car spills over to the other shard
+        ParkingTicket first = router.parkVehicle(new Car("KA-09-SHRD1"));
+        ParkingTicket second = router.parkVehicle(new Car("KA-09-SHRD2"));
+        gossip.runRound();
+        System.out.println("\nKnown available spots after gossip: " + router.getKnownAvailableSpots());
+        
+        // Exits are routed to the owning shard by ticket ID
+        if (first != null) {
+            router.exitVehicle(first.getTicketId());
+        }
+        if (second != null) {
+            router.exitVehicle(second.getTicketId());
+        }
+    }
+}
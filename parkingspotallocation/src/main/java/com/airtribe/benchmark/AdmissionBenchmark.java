@@ -0,0 +1,208 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.entity.*;
+import com.airtribe.service.AdmissionController;
+import com.airtribe.service.AdmissionResult;
+import com.airtribe.service.ParkingLot;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how the admission layer behaves under overload.
+ * First it fills the lot and times "lot full" answers, comparing a direct
+ * parkVehicle (which searches every floor before giving up) with the admission
+ * controller's answer from cached free counts. Then it runs gate threads that
+ * request entries as fast as they can, far above the per-gate rate limit, and
+ * compares the lot used directly with the lot behind the controller: entry
+ * latency percentiles, admitted throughput and how many requests were shed, and why.
+ *
+ * Usage: AdmissionBenchmark [gates=16] [floors=8] [spotsPerFloor=2000] [window=16] [seconds=5]
+ *        [rate=2000] [burst=20] [maxConcurrent=4] [budgetMicros=500] [fullChecks=1000000]
+ */
+public class AdmissionBenchmark {
+    private static final int LATENCY_SAMPLES_PER_GATE = 1 << 16;
+    
+    public static void main(String[] args) throws InterruptedException {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int gates = options.getInt("gates", 16);
+        int floors = options.getInt("floors", 8);
+        int spotsPerFloor = options.getInt("spotsPerFloor", 2000);
+        int window = options.getInt("window", 16);
+        long seconds = options.getLong("seconds", 5);
+        int rate = options.getInt("rate", 2000);
+        int burst = options.getInt("burst", 20);
+        int maxConcurrent = options.getInt("maxConcurrent", 4);
+        long budgetMicros = options.getLong("budgetMicros", 500);
+        int fullChecks = options.getInt("fullChecks", 1_000_000);
+        
+        System.out.println("Floors: " + floors + " x " + spotsPerFloor + " spots, "
+                + Runtime.getRuntime().availableProcessors() + " CPUs");
+        lotFull(floors, spotsPerFloor, fullChecks);
+        
+        System.out.println("Overload: " + gates + " gates requesting flat out, limit " + rate + "/s per gate (burst "
+                + burst + "), " + maxConcurrent + " concurrent allocations, " + budgetMicros + " us budget");
+        for (boolean admission : new boolean[] {false, true}) {
+            String label = admission ? "admission controller" : "direct";
+            overload(label + " warmup", admission, gates, floors, spotsPerFloor, window, 1,
+                    rate, burst, maxConcurrent, budgetMicros);
+            overload(label, admission, gates, floors, spotsPerFloor, window, seconds,
+                    rate, burst, maxConcurrent, budgetMicros);
+        }
+    }
+    
+    private static void lotFull(int floors, int spotsPerFloor, int checks) {
+        ParkingLot lot = newLot(floors, spotsPerFloor);
+        int parked = 0;
+        while (lot.parkVehicle(Vehicle.of("FULL" + parked, VehicleRegistry.MOTORCYCLE),
+                VehicleRegistry.MOTORCYCLE.getDefaultSpotQuery()) != null) {
+            parked++;
+        }
+        AdmissionController controller = new AdmissionController(lot, 1);
+        controller.registerGate("G0", Double.MAX_VALUE / 4, Integer.MAX_VALUE);
+        Vehicle car = Vehicle.of("LATE-1", VehicleRegistry.CAR);
+        SpotQuery query = car.getVehicleClass().getDefaultSpotQuery();
+        
+        System.out.println("Lot full (" + parked + " vehicles parked), " + checks + " entry attempts:");
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < checks; i++) {
+                if (lot.parkVehicle(car, query) != null) {
+                    throw new IllegalStateException("Lot was expected to be full");
+                }
+            }
+            long direct = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < checks; i++) {
+                if (controller.parkVehicle("G0", car).getOutcome() != AdmissionResult.Outcome.LOT_FULL) {
+                    throw new IllegalStateException("Lot was expected to be full");
+                }
+            }
+            long admitted = System.nanoTime() - start;
+            if (round == 1) {
+                System.out.printf("  %-32s %8.1f ns/request%n", "direct parkVehicle", (double) direct / checks);
+                System.out.printf("  %-32s %8.1f ns/request%n", "admission (cached free counts)", (double) admitted / checks);
+            }
+        }
+    }
+    
+    private static void overload(String label, boolean admission, int gates, int floors, int spotsPerFloor,
+                                 int window, long seconds, int rate, int burst, int maxConcurrent,
+                                 long budgetMicros) throws InterruptedException {
+        ParkingLot lot = newLot(floors, spotsPerFloor);
+        AdmissionController controller = new AdmissionController(lot, maxConcurrent, Duration.ofNanos(budgetMicros * 1000));
+        for (int g = 0; g < gates; g++) {
+            controller.registerGate("G" + g, rate, burst);
+        }
+        
+        long[][] latencies = new long[gates][LATENCY_SAMPLES_PER_GATE];
+        int[] samples = new int[gates];
+        LongAdder requests = new LongAdder();
+        LongAdder parkedCount = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[gates];
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        
+        for (int g = 0; g < gates; g++) {
+            int gate = g;
+            String gateId = "G" + g;
+            threads[g] = new Thread(() -> {
+                Vehicle[] fleet = buildFleet(gate, window * 2);
+                ArrayDeque<ParkingTicket> parked = new ArrayDeque<>(window);
+                awaitQuietly(start);
+                long ops = 0;
+                long admitted = 0;
+                int next = 0;
+                while (System.nanoTime() < deadline) {
+                    if (parked.size() == window) {
+                        lot.exitVehicle(parked.removeFirst().getTicketId());
+                    }
+                    Vehicle vehicle = fleet[next++ % fleet.length];
+                    long begin = System.nanoTime();
+                    ParkingTicket ticket = admission
+                            ? controller.parkVehicle(gateId, vehicle).getTicket()
+                            : lot.parkVehicle(vehicle, vehicle.getVehicleClass().getDefaultSpotQuery());
+                    latencies[gate][(int) (ops & (LATENCY_SAMPLES_PER_GATE - 1))] = System.nanoTime() - begin;
+                    ops++;
+                    if (ticket != null) {
+                        parked.addLast(ticket);
+                        admitted++;
+                    }
+                }
+                for (ParkingTicket ticket : parked) {
+                    lot.exitVehicle(ticket.getTicketId());
+                }
+                requests.add(ops);
+                parkedCount.add(admitted);
+                samples[gate] = (int) Math.min(ops, LATENCY_SAMPLES_PER_GATE);
+            }, "gate-" + g);
+            threads[g].start();
+        }
+        
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - began) / 1e9;
+        
+        long[] merged = new long[Arrays.stream(samples).sum()];
+        int offset = 0;
+        for (int g = 0; g < gates; g++) {
+            System.arraycopy(latencies[g], 0, merged, offset, samples[g]);
+            offset += samples[g];
+        }
+        Arrays.sort(merged);
+        System.out.printf("  %-32s %10.0f requests/s   %9.0f parked/s   p50 %7.2f us   p99 %7.2f us   p99.9 %7.2f us%n",
+                label, requests.sum() / elapsedSeconds, parkedCount.sum() / elapsedSeconds,
+                percentile(merged, 0.50), percentile(merged, 0.99), percentile(merged, 0.999));
+        if (admission) {
+            StringBuilder outcomes = new StringBuilder("  ").append(" ".repeat(32));
+            for (AdmissionResult.Outcome outcome : AdmissionResult.Outcome.values()) {
+                outcomes.append(' ').append(outcome).append('=').append(controller.getCount(outcome));
+            }
+            System.out.println(outcomes);
+        }
+    }
+    
+    private static ParkingLot newLot(int floors, int spotsPerFloor) {
+        ParkingLot lot = ParkingLot.create("Benchmark Lot", 1, floors, ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+        lot.setVerbose(false);
+        for (int f = 1; f <= floors; f++) {
+            for (int i = 0; i < spotsPerFloor; i++) {
+                int bucket = i % 10;
+                SpotSize size = bucket < 3 ? SpotSize.SMALL : bucket < 8 ? SpotSize.MEDIUM : SpotSize.LARGE;
+                lot.addParkingSpot(f, new ParkingSpot("F" + f + "-" + i, size, f));
+            }
+        }
+        return lot;
+    }
+    
+    private static Vehicle[] buildFleet(int gate, int count) {
+        Vehicle[] fleet = new Vehicle[count];
+        for (int i = 0; i < count; i++) {
+            VehicleClass vehicleClass = i % 10 < 3 ? VehicleRegistry.MOTORCYCLE
+                    : i % 10 < 9 ? VehicleRegistry.CAR : VehicleRegistry.BUS;
+            fleet[i] = Vehicle.of("G" + gate + "V" + i, vehicleClass);
+        }
+        return fleet;
+    }
+    
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1000.0;
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
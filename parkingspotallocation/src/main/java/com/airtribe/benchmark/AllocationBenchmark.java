@@ -0,0 +1,120 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.entity.*;
+import com.airtribe.service.ParkingLot;
+import com.airtribe.service.TicketSlab;
+import com.airtribe.strategy.OccupancyPricingStrategy;
+import com.airtribe.strategy.Tariff;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap bytes allocated per park/exit cycle on the calling thread,
+ * comparing regular tickets with pooled (slab) tickets.
+ * Uses the JVM's per-thread allocation counter, so only allocations made by the
+ * benchmark thread itself are counted. Each mode is warmed up first so the JIT
+ * has compiled the path being measured.
+ *
+ * Usage: AllocationBenchmark [floors=4] [spotsPerFloor=1000] [parked=2000] [warmup=200000] [cycles=1000000]
+ *        [pricing=hourly|surge]
+ */
+public class AllocationBenchmark {
+    
+    public static void main(String[] args) {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int floors = options.getInt("floors", 4);
+        int spotsPerFloor = options.getInt("spotsPerFloor", 1000);
+        int parked = options.getInt("parked", 2000);
+        int warmup = options.getInt("warmup", 200_000);
+        int cycles = options.getInt("cycles", 1_000_000);
+        boolean surge = "surge".equals(options.getString("pricing", "hourly"));
+        
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Per-thread allocation counters are not supported by this JVM");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        
+        System.out.println("Floors: " + floors + " x " + spotsPerFloor + " spots, " + parked
+                + " vehicles kept parked, " + cycles + " measured park/exit cycles, "
+                + (surge ? "surge" : "hourly") + " pricing");
+        
+        ParkingLot ticketLot = newLot(floors, spotsPerFloor, surge);
+        Vehicle[] fleet = buildFleet(parked);
+        ParkingTicket[] tickets = new ParkingTicket[parked];
+        for (int i = 0; i < parked; i++) {
+            tickets[i] = ticketLot.parkVehicle(fleet[i]);
+        }
+        runTickets(ticketLot, fleet, tickets, warmup);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        runTickets(ticketLot, fleet, tickets, cycles);
+        report("Regular tickets", threads.getCurrentThreadAllocatedBytes() - before, System.nanoTime() - start, cycles);
+        
+        ParkingLot slabLot = newLot(floors, spotsPerFloor, surge);
+        slabLot.enableTicketSlab(parked);
+        long[] handles = new long[parked];
+        for (int i = 0; i < parked; i++) {
+            handles[i] = slabLot.parkVehicleHandle(fleet[i]);
+        }
+        runHandles(slabLot, fleet, handles, warmup);
+        before = threads.getCurrentThreadAllocatedBytes();
+        start = System.nanoTime();
+        runHandles(slabLot, fleet, handles, cycles);
+        report("Pooled tickets (slab)", threads.getCurrentThreadAllocatedBytes() - before, System.nanoTime() - start, cycles);
+    }
+    
+    /**
+     * Each cycle exits one parked vehicle and parks it again, keeping occupancy constant.
+     */
+    private static void runTickets(ParkingLot lot, Vehicle[] fleet, ParkingTicket[] tickets, int cycles) {
+        for (int c = 0; c < cycles; c++) {
+            int i = c % tickets.length;
+            lot.exitVehicle(tickets[i].getTicketId());
+            tickets[i] = lot.parkVehicle(fleet[i]);
+        }
+    }
+    
+    private static void runHandles(ParkingLot lot, Vehicle[] fleet, long[] handles, int cycles) {
+        for (int c = 0; c < cycles; c++) {
+            int i = c % handles.length;
+            lot.exitVehicleHandle(handles[i]);
+            handles[i] = lot.parkVehicleHandle(fleet[i]);
+            if (handles[i] == TicketSlab.NO_HANDLE) {
+                throw new IllegalStateException("Lot ran out of spots or ticket slots");
+            }
+        }
+    }
+    
+    private static void report(String label, long allocatedBytes, long elapsedNanos, int cycles) {
+        System.out.printf("  %-24s %10.1f bytes/cycle   %8.0f ns/cycle%n",
+                label, (double) allocatedBytes / cycles, (double) elapsedNanos / cycles);
+    }
+    
+    private static ParkingLot newLot(int floors, int spotsPerFloor, boolean surge) {
+        ParkingLot lot = ParkingLot.create("Benchmark Lot", 1, floors, ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+        lot.setVerbose(false);
+        if (surge) {
+            lot.getFeeCalculator().setStrategy(new OccupancyPricingStrategy(Tariff.standardSurge()));
+        }
+        for (int f = 1; f <= floors; f++) {
+            for (int i = 0; i < spotsPerFloor; i++) {
+                int bucket = i % 10;
+                SpotSize size = bucket < 3 ? SpotSize.SMALL : bucket < 8 ? SpotSize.MEDIUM : SpotSize.LARGE;
+                lot.addParkingSpot(f, new ParkingSpot("F" + f + "-" + i, size, f));
+            }
+        }
+        return lot;
+    }
+    
+    private static Vehicle[] buildFleet(int count) {
+        Vehicle[] fleet = new Vehicle[count];
+        for (int i = 0; i < count; i++) {
+            VehicleClass vehicleClass = i % 10 < 3 ? VehicleRegistry.MOTORCYCLE
+                    : i % 10 < 9 ? VehicleRegistry.CAR : VehicleRegistry.BUS;
+            fleet[i] = Vehicle.of("AB" + i, vehicleClass);
+        }
+        return fleet;
+    }
+}
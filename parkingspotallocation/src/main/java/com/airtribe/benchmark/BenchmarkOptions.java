@@ -0,0 +1,33 @@
+package com.airtribe.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses key=value command-line options for the benchmark mains.
+ */
+final class BenchmarkOptions {
+    private final Map<String, String> values = new HashMap<>();
+    
+    BenchmarkOptions(String[] args) {
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            values.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+    }
+    
+    int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+    
+    long getLong(String key, long defaultValue) {
+        return values.containsKey(key) ? Long.parseLong(values.get(key)) : defaultValue;
+    }
+    
+    String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+}
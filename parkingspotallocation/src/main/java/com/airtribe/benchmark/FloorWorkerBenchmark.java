@@ -0,0 +1,145 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.entity.*;
+import com.airtribe.service.ParkingLot;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compares the lock-based lot against floor-worker mode at high gate concurrency.
+ * Each gate thread keeps a window of parked vehicles: it parks one, and once the
+ * window is full it exits the oldest, so the lot stays partly occupied while
+ * park and exit requests interleave across all floors.
+ * Reports throughput and per-operation latency percentiles for both modes.
+ *
+ * Usage: FloorWorkerBenchmark [gates=64] [floors=8] [spotsPerFloor=2000] [window=16] [seconds=5] [warmupSeconds=2]
+ */
+public class FloorWorkerBenchmark {
+    private static final int LATENCY_SAMPLES_PER_GATE = 1 << 16;
+    
+    public static void main(String[] args) throws InterruptedException {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int gates = options.getInt("gates", 64);
+        int floors = options.getInt("floors", 8);
+        int spotsPerFloor = options.getInt("spotsPerFloor", 2000);
+        int window = options.getInt("window", 16);
+        long seconds = options.getLong("seconds", 5);
+        long warmupSeconds = options.getLong("warmupSeconds", 2);
+        
+        System.out.println("Gates: " + gates + ", floors: " + floors + " x " + spotsPerFloor
+                + " spots, window: " + window + " vehicles per gate, " + Runtime.getRuntime().availableProcessors() + " CPUs");
+        for (boolean floorWorkers : new boolean[] {false, true}) {
+            String label = floorWorkers ? "floor workers (MPSC)" : "synchronized";
+            run(label + " warmup", floorWorkers, gates, floors, spotsPerFloor, window, warmupSeconds);
+            run(label, floorWorkers, gates, floors, spotsPerFloor, window, seconds);
+        }
+    }
+    
+    private static void run(String label, boolean floorWorkers, int gates, int floors, int spotsPerFloor,
+                            int window, long seconds) throws InterruptedException {
+        ParkingLot lot = newLot(floors, spotsPerFloor);
+        if (floorWorkers) {
+            lot.startFloorWorkers();
+        }
+        
+        long[][] latencies = new long[gates][LATENCY_SAMPLES_PER_GATE];
+        int[] samples = new int[gates];
+        long[] operations = new long[gates];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[gates];
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        
+        for (int g = 0; g < gates; g++) {
+            int gate = g;
+            threads[g] = new Thread(() -> {
+                Vehicle[] fleet = buildFleet(gate, window * 2);
+                ArrayDeque<ParkingTicket> parked = new ArrayDeque<>(window);
+                awaitQuietly(start);
+                long ops = 0;
+                int next = 0;
+                while (System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+                    if (parked.size() < window) {
+                        ParkingTicket ticket = lot.parkVehicle(fleet[next++ % fleet.length]);
+                        if (ticket != null) {
+                            parked.addLast(ticket);
+                        }
+                    } else {
+                        lot.exitVehicle(parked.removeFirst().getTicketId());
+                    }
+                    long elapsed = System.nanoTime() - begin;
+                    latencies[gate][(int) (ops & (LATENCY_SAMPLES_PER_GATE - 1))] = elapsed;
+                    ops++;
+                }
+                for (ParkingTicket ticket : parked) {
+                    lot.exitVehicle(ticket.getTicketId());
+                }
+                operations[gate] = ops;
+                samples[gate] = (int) Math.min(ops, LATENCY_SAMPLES_PER_GATE);
+            }, "gate-" + g);
+            threads[g].start();
+        }
+        
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - began) / 1e9;
+        if (floorWorkers) {
+            lot.stopFloorWorkers();
+        }
+        
+        long total = Arrays.stream(operations).sum();
+        long[] merged = new long[Arrays.stream(samples).sum()];
+        int offset = 0;
+        for (int g = 0; g < gates; g++) {
+            System.arraycopy(latencies[g], 0, merged, offset, samples[g]);
+            offset += samples[g];
+        }
+        Arrays.sort(merged);
+        System.out.printf("  %-32s %10.0f ops/s   p50 %8.1f us   p99 %8.1f us   p99.9 %8.1f us   leftover %d%n",
+                label, total / elapsedSeconds, percentile(merged, 0.50), percentile(merged, 0.99),
+                percentile(merged, 0.999), lot.getTotalSpots() - lot.getTotalAvailableSpots());
+    }
+    
+    private static ParkingLot newLot(int floors, int spotsPerFloor) {
+        ParkingLot lot = ParkingLot.create("Benchmark Lot", 1, floors, ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+        lot.setVerbose(false);
+        for (int f = 1; f <= floors; f++) {
+            for (int i = 0; i < spotsPerFloor; i++) {
+                int bucket = i % 10;
+                SpotSize size = bucket < 3 ? SpotSize.SMALL : bucket < 8 ? SpotSize.MEDIUM : SpotSize.LARGE;
+                lot.addParkingSpot(f, new ParkingSpot("F" + f + "-" + i, size, f));
+            }
+        }
+        return lot;
+    }
+    
+    private static Vehicle[] buildFleet(int gate, int count) {
+        Vehicle[] fleet = new Vehicle[count];
+        for (int i = 0; i < count; i++) {
+            VehicleClass vehicleClass = i % 10 < 3 ? VehicleRegistry.MOTORCYCLE
+                    : i % 10 < 9 ? VehicleRegistry.CAR : VehicleRegistry.BUS;
+            fleet[i] = Vehicle.of("G" + gate + "V" + i, vehicleClass);
+        }
+        return fleet;
+    }
+    
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1000.0;
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
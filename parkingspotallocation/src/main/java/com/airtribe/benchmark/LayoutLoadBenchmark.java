@@ -0,0 +1,65 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.layout.LayoutLoader;
+import com.airtribe.layout.ParkingLayout;
+import com.airtribe.service.ParkingLot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures startup-time layout loading.
+ * Generates a synthetic CSV layout, then times a cold load (CSV parse plus
+ * image caching) and warm loads from the cached image, each followed by
+ * building the floors of a fresh lot.
+ * 
+ * Usage: LayoutLoadBenchmark [spots=1000000] [floors=20] [rounds=5] [dir=&lt;temp dir&gt;]
+ */
+public class LayoutLoadBenchmark {
+    
+    public static void main(String[] args) throws IOException {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int spots = options.getInt("spots", 1_000_000);
+        int floors = options.getInt("floors", 20);
+        int rounds = options.getInt("rounds", 5);
+        Path dir = Path.of(options.getString("dir", System.getProperty("java.io.tmpdir")));
+        
+        Path csv = dir.resolve("layout-" + spots + ".csv");
+        writeSyntheticLayout(csv, spots, floors);
+        Files.deleteIfExists(LayoutLoader.imagePathFor(csv));
+        System.out.println("Layout: " + spots + " spots on " + floors + " floors (" + Files.size(csv) / 1024 + " KiB CSV)");
+        
+        time("Cold load (CSV parse + image cache)", csv);
+        for (int round = 1; round <= rounds; round++) {
+            time("Warm load #" + round + " (cached image)", csv);
+        }
+        Files.deleteIfExists(LayoutLoader.imagePathFor(csv));
+        Files.deleteIfExists(csv);
+    }
+    
+    private static void time(String label, Path csv) throws IOException {
+        long start = System.nanoTime();
+        ParkingLayout layout = LayoutLoader.load(csv);
+        long loaded = System.nanoTime();
+        ParkingLot lot = layout.newParkingLot("Benchmark Lot", ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+        long built = System.nanoTime();
+        System.out.printf("  %-40s load %6.1f ms, build floors %6.1f ms, total %6.1f ms (%d spots)%n", label,
+                (loaded - start) / 1e6, (built - loaded) / 1e6, (built - start) / 1e6, lot.getTotalSpots());
+    }
+    
+    private static void writeSyntheticLayout(Path csv, int spots, int floors) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("floor,spotId,size,capabilities\n");
+            for (int i = 0; i < spots; i++) {
+                int floor = 1 + i % floors;
+                int bucket = i % 10;
+                String size = bucket < 3 ? "SMALL" : bucket < 8 ? "MEDIUM" : "LARGE";
+                String capabilities = i % 17 == 0 ? ",CHARGER|COVERED" : i % 29 == 0 ? ",ACCESSIBLE" : "";
+                writer.write(floor + ",F" + floor + "-" + i + "," + size + capabilities + "\n");
+            }
+        }
+    }
+}
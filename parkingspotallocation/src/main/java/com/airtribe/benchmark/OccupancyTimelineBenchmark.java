@@ -0,0 +1,160 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.entity.*;
+import com.airtribe.service.IdleSpot;
+import com.airtribe.service.ParkingLot;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the occupancy timeline: what recording costs on the park/exit path and
+ * how fast heatmaps and idle-spot rankings are built over a large lot.
+ * Backfills a synthetic history for every spot over the retained days, in which
+ * every twentieth spot is never used, then times a floor heatmap of yesterday,
+ * per-spot hourly heatmaps of every floor and an idle-spot ranking over the whole
+ * window. The never-used spots should head the ranking.
+ *
+ * Usage: OccupancyTimelineBenchmark [floors=10] [spotsPerFloor=10000] [days=7] [staysPerDay=6]
+ *        [queries=20] [cycles=500000]
+ */
+public class OccupancyTimelineBenchmark {
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    
+    public static void main(String[] args) {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int floors = options.getInt("floors", 10);
+        int spotsPerFloor = options.getInt("spotsPerFloor", 10_000);
+        int days = options.getInt("days", 7);
+        int staysPerDay = options.getInt("staysPerDay", 6);
+        int queries = options.getInt("queries", 20);
+        int cycles = options.getInt("cycles", 500_000);
+        
+        System.out.println("Floors: " + floors + " x " + spotsPerFloor + " spots, " + days + " days retained ("
+                + (long) floors * spotsPerFloor * days * SpotOccupancyTimeline.WORDS_PER_DAY * 8 / (1024 * 1024)
+                + " MB of day bitmaps)");
+        
+        ParkingLot small = newLot(4, 1000);
+        Vehicle[] fleet = buildFleet(2000);
+        ParkingTicket[] tickets = new ParkingTicket[fleet.length];
+        run(small, fleet, tickets, cycles); // warmup
+        long without = run(small, fleet, tickets, cycles);
+        small.enableOccupancyTimeline(days);
+        run(small, fleet, tickets, cycles); // warmup
+        long with = run(small, fleet, tickets, cycles);
+        System.out.printf("  park/exit cycle: %.0f ns without timeline, %.0f ns with%n",
+                (double) without / cycles, (double) with / cycles);
+        
+        ParkingLot lot = newLot(floors, spotsPerFloor);
+        lot.enableOccupancyTimeline(days);
+        long start = System.nanoTime();
+        LocalDate today = backfill(lot, days, staysPerDay);
+        System.out.printf("  Backfilled %d days of stays in %.0f ms%n", days, (System.nanoTime() - start) / 1e6);
+        for (int i = 0; i < 1000; i++) {
+            lot.parkVehicle(fleet[i], fleet[i].getVehicleClass().getDefaultSpotQuery());
+        }
+        
+        LocalDate yesterday = today.minusDays(1);
+        LocalDate first = today.minusDays(days - 1);
+        double[][] heatmap = null;
+        List<IdleSpot> idle = null;
+        long heatmapNanos = 0;
+        long spotHeatmapNanos = 0;
+        long rankingNanos = 0;
+        for (int q = 0; q < queries; q++) {
+            start = System.nanoTime();
+            heatmap = lot.getFloorHeatmap(yesterday);
+            heatmapNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            for (ParkingFloor floor : lot.getFloors()) {
+                floor.getOccupancyTimeline().hourlyHeatmap(yesterday);
+            }
+            spotHeatmapNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            idle = lot.rankIdleSpots(first, today, 20);
+            rankingNanos += System.nanoTime() - start;
+        }
+        System.out.printf("  Floor heatmap (all floors, 24 h)     %8.1f ms%n", heatmapNanos / 1e6 / queries);
+        System.out.printf("  Per-spot hourly heatmaps (all spots) %8.1f ms%n", spotHeatmapNanos / 1e6 / queries);
+        System.out.printf("  Idle-spot ranking (%d days, top 20)   %8.1f ms%n", days, rankingNanos / 1e6 / queries);
+        
+        StringBuilder row = new StringBuilder("  Floor 1 yesterday, % occupied by hour:");
+        for (double utilization : heatmap[0]) {
+            row.append(' ').append(Math.round(utilization * 100));
+        }
+        System.out.println(row);
+        System.out.println("  Most idle: " + idle.subList(0, Math.min(5, idle.size())));
+    }
+    
+    /**
+     * Gives every spot a few random stays on each retained day, up to the current
+     * minute. Every twentieth spot stays empty. Returns today's date.
+     */
+    private static LocalDate backfill(ParkingLot lot, int days, int staysPerDay) {
+        SplittableRandom random = new SplittableRandom(42);
+        SpotOccupancyTimeline anyTimeline = lot.getFloors().get(0).getOccupancyTimeline();
+        LocalDate today = anyTimeline.today();
+        ZoneOffset offset = anyTimeline.getOffset();
+        long now = System.currentTimeMillis();
+        for (ParkingFloor floor : lot.getFloors()) {
+            SpotOccupancyTimeline timeline = floor.getOccupancyTimeline();
+            for (int spot = 0; spot < timeline.getSpotCount(); spot++) {
+                if (spot % 20 == 0) {
+                    continue;
+                }
+                for (int d = days - 1; d >= 0; d--) {
+                    long dayStart = today.minusDays(d).atStartOfDay().toInstant(offset).toEpochMilli();
+                    int stays = random.nextInt(staysPerDay + 1);
+                    for (int s = 0; s < stays; s++) {
+                        long from = dayStart + random.nextInt(SpotOccupancyTimeline.MINUTES_PER_DAY) * MILLIS_PER_MINUTE;
+                        long to = from + (5 + random.nextInt(240)) * MILLIS_PER_MINUTE;
+                        if (to < now) {
+                            timeline.record(spot, from, to);
+                        }
+                    }
+                }
+            }
+        }
+        return today;
+    }
+    
+    /**
+     * Exits the oldest vehicle and parks it again, keeping occupancy constant.
+     */
+    private static long run(ParkingLot lot, Vehicle[] fleet, ParkingTicket[] tickets, int cycles) {
+        long start = System.nanoTime();
+        for (int c = 0; c < cycles; c++) {
+            int i = c % fleet.length;
+            if (tickets[i] != null) {
+                lot.exitVehicle(tickets[i].getTicketId());
+            }
+            tickets[i] = lot.parkVehicle(fleet[i], fleet[i].getVehicleClass().getDefaultSpotQuery());
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static ParkingLot newLot(int floors, int spotsPerFloor) {
+        ParkingLot lot = ParkingLot.create("Benchmark Lot", 1, floors, ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+        lot.setVerbose(false);
+        for (int f = 1; f <= floors; f++) {
+            for (int i = 0; i < spotsPerFloor; i++) {
+                int bucket = i % 10;
+                SpotSize size = bucket < 3 ? SpotSize.SMALL : bucket < 8 ? SpotSize.MEDIUM : SpotSize.LARGE;
+                lot.addParkingSpot(f, new ParkingSpot("F" + f + "-" + i, size, f));
+            }
+        }
+        return lot;
+    }
+    
+    private static Vehicle[] buildFleet(int count) {
+        Vehicle[] fleet = new Vehicle[count];
+        for (int i = 0; i < count; i++) {
+            VehicleClass vehicleClass = i % 10 < 3 ? VehicleRegistry.MOTORCYCLE
+                    : i % 10 < 9 ? VehicleRegistry.CAR : VehicleRegistry.BUS;
+            fleet[i] = Vehicle.of("OT" + i, vehicleClass);
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,124 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.entity.*;
+import com.airtribe.replication.ReplicationPrimary;
+import com.airtribe.replication.ReplicationStandby;
+import com.airtribe.service.ParkingLot;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what primary/standby replication costs the gate path and how long failover takes.
+ * Runs the same park/exit workload against a lot without replication and against a
+ * replicated primary, reporting the mean parkVehicle latency of each. Spots are
+ * found through the floor bitsets, so the allocation itself stays cheap and the
+ * replication overhead is visible. It then waits
+ * for the standby to catch up, compares both lots, drops the primary connection as a
+ * crash would, and times the standby's promotion.
+ *
+ * Usage: ReplicationBenchmark [floors=4] [spotsPerFloor=1000] [parked=2000] [cycles=200000]
+ */
+public class ReplicationBenchmark {
+    
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        int floors = options.getInt("floors", 4);
+        int spotsPerFloor = options.getInt("spotsPerFloor", 1000);
+        int parked = options.getInt("parked", 2000);
+        int cycles = options.getInt("cycles", 200_000);
+        Vehicle[] fleet = buildFleet(parked);
+        
+        System.out.println("Floors: " + floors + " x " + spotsPerFloor + " spots, " + parked
+                + " vehicles kept parked, " + cycles + " park/exit cycles");
+        
+        ParkingLot plain = newLot(floors, spotsPerFloor);
+        ParkingTicket[] plainTickets = new ParkingTicket[parked];
+        run(plain, fleet, plainTickets, cycles); // warmup
+        report("Without replication", run(plain, fleet, plainTickets, cycles), cycles);
+        
+        ParkingLot primaryLot = newLot(floors, spotsPerFloor);
+        ParkingLot standbyLot = newLot(floors, spotsPerFloor);
+        ReplicationStandby standby = new ReplicationStandby(standbyLot, 0);
+        standby.start();
+        ReplicationPrimary primary = new ReplicationPrimary(primaryLot,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), standby.getPort()));
+        primary.start();
+        ParkingTicket[] primaryTickets = new ParkingTicket[parked];
+        run(primaryLot, fleet, primaryTickets, cycles); // warmup
+        report("With replication", run(primaryLot, fleet, primaryTickets, cycles), cycles);
+        
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (standby.getRecordsApplied() + standby.getApplyErrors() < primary.getRecordsQueued()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        System.out.printf("  Shipped %d records in %d batches (%.1f bytes/record), applied %d, errors %d%n",
+                primary.getRecordsQueued(), primary.getBatchesSent(),
+                (double) primary.getBytesSent() / Math.max(1, primary.getRecordsQueued()),
+                standby.getRecordsApplied(), standby.getApplyErrors());
+        boolean consistent = primaryLot.getActiveTickets().keySet().equals(standbyLot.getActiveTickets().keySet())
+                && primaryLot.getTotalAvailableSpots() == standbyLot.getTotalAvailableSpots();
+        System.out.println("  Standby matches primary: " + consistent + " (" + standbyLot.getActiveTickets().size()
+                + " active tickets)");
+        
+        long crashed = System.nanoTime();
+        primary.abort();
+        boolean promoted = standby.awaitPromotion(5, TimeUnit.SECONDS);
+        System.out.printf("  Failover after primary loss: %s in %.1f ms%n",
+                promoted ? "promoted" : "NOT promoted", (System.nanoTime() - crashed) / 1e6);
+        if (promoted) {
+            ParkingTicket next = standbyLot.parkVehicle(Vehicle.of("FAILOVER-1", VehicleRegistry.CAR));
+            System.out.println("  First ticket issued by the promoted standby: "
+                    + (next == null ? "none (lot full)" : next.getTicketId()));
+        }
+        standby.close();
+    }
+    
+    /**
+     * Exits the oldest vehicle and parks it again, keeping occupancy constant.
+     * Returns the total time spent inside parkVehicle.
+     */
+    private static long run(ParkingLot lot, Vehicle[] fleet, ParkingTicket[] tickets, int cycles) {
+        long parkNanos = 0;
+        for (int c = 0; c < cycles; c++) {
+            int i = c % fleet.length;
+            if (tickets[i] != null) {
+                lot.exitVehicle(tickets[i].getTicketId());
+            }
+            long start = System.nanoTime();
+            tickets[i] = lot.parkVehicle(fleet[i], fleet[i].getVehicleClass().getDefaultSpotQuery());
+            parkNanos += System.nanoTime() - start;
+        }
+        return parkNanos;
+    }
+    
+    private static void report(String label, long parkNanos, int cycles) {
+        System.out.printf("  %-24s parkVehicle %8.2f us/op%n", label, parkNanos / 1e3 / cycles);
+    }
+    
+    private static ParkingLot newLot(int floors, int spotsPerFloor) {
+        ParkingLot lot = ParkingLot.create("Benchmark Lot", 1, floors, ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+        lot.setVerbose(false);
+        for (int f = 1; f <= floors; f++) {
+            for (int i = 0; i < spotsPerFloor; i++) {
+                int bucket = i % 10;
+                SpotSize size = bucket < 3 ? SpotSize.SMALL : bucket < 8 ? SpotSize.MEDIUM : SpotSize.LARGE;
+                lot.addParkingSpot(f, new ParkingSpot("F" + f + "-" + i, size, f));
+            }
+        }
+        return lot;
+    }
+    
+    private static Vehicle[] buildFleet(int count) {
+        Vehicle[] fleet = new Vehicle[count];
+        for (int i = 0; i < count; i++) {
+            VehicleClass vehicleClass = i % 10 < 3 ? VehicleRegistry.MOTORCYCLE
+                    : i % 10 < 9 ? VehicleRegistry.CAR : VehicleRegistry.BUS;
+            fleet[i] = Vehicle.of("RP" + i, vehicleClass);
+        }
+        return fleet;
+    }
+}
@@ -0,0 +1,74 @@
+package com.airtribe.cluster;
+
+import com.airtribe.entity.SpotSize;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a shard's free spot counts, indexed by SpotSize.
+ * Summaries are gossiped from shard nodes to routers; a higher version
+ * always replaces a lower one.
+ */
+public final class FreeCountSummary {
+    private final int shardId;
+    private final long version;
+    private final long[] freeBySize;
+    
+    public FreeCountSummary(int shardId, long version, long[] freeBySize) {
+        if (freeBySize.length != SpotSize.values().length) {
+            throw new IllegalArgumentException("Expected one count per SpotSize");
+        }
+        this.shardId = shardId;
+        this.version = version;
+        this.freeBySize = freeBySize.clone();
+    }
+    
+    public int getShardId() {
+        return shardId;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public long getFree(SpotSize size) {
+        return freeBySize[size.ordinal()];
+    }
+    
+    /**
+     * Number of free spots that can hold a vehicle needing the given size
+     * (the size itself and every larger size).
+     */
+    public long getFreeFor(SpotSize requiredSize) {
+        long total = 0;
+        for (int i = requiredSize.ordinal(); i < freeBySize.length; i++) {
+            total += freeBySize[i];
+        }
+        return total;
+    }
+    
+    /**
+     * Local view after the router placed a vehicle in a spot of the given size.
+     * Keeps the same version so the next gossiped summary replaces it.
+     */
+    FreeCountSummary consumed(SpotSize size) {
+        long[] counts = freeBySize.clone();
+        counts[size.ordinal()] = Math.max(0, counts[size.ordinal()] - 1);
+        return new FreeCountSummary(shardId, version, counts);
+    }
+    
+    /**
+     * Local view after the shard refused a vehicle needing the given size:
+     * no spot of that size or larger is free there.
+     */
+    FreeCountSummary exhausted(SpotSize requiredSize) {
+        long[] counts = freeBySize.clone();
+        Arrays.fill(counts, requiredSize.ordinal(), counts.length, 0);
+        return new FreeCountSummary(shardId, version, counts);
+    }
+    
+    @Override
+    public String toString() {
+        return "Summary[shard " + shardId + ", v" + version + ", free " + Arrays.toString(freeBySize) + "]";
+    }
+}
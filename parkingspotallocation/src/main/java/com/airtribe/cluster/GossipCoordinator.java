@@ -0,0 +1,57 @@
+package com.airtribe.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local coordinator that gossips shard free-count summaries to routers.
+ * Each round every node takes a fresh summary and pushes it to every router.
+ * Rounds can also be triggered by hand, which keeps in-process setups deterministic.
+ */
+public class GossipCoordinator {
+    private final List<ShardNode> nodes;
+    private final List<ShardRouter> routers;
+    private ScheduledExecutorService scheduler;
+    
+    public GossipCoordinator(List<ShardNode> nodes, List<ShardRouter> routers) {
+        this.nodes = new ArrayList<>(nodes);
+        this.routers = new ArrayList<>(routers);
+    }
+    
+    /**
+     * Runs one gossip round synchronously.
+     */
+    public void runRound() {
+        for (ShardNode node : nodes) {
+            FreeCountSummary summary = node.summarize();
+            for (ShardRouter router : routers) {
+                router.acceptSummary(summary);
+            }
+        }
+    }
+    
+    /**
+     * Starts gossiping in the background at a fixed interval.
+     */
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Gossip already running");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-gossip");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::runRound, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.airtribe.cluster;
+
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.entity.Vehicle;
+import com.airtribe.service.ParkingLot;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One engine node of a sharded parking lot.
+ * Owns a contiguous range of floors through its own ParkingLot instance, so
+ * every spot is allocated by exactly one node and spillover between shards
+ * can never double-allocate a spot.
+ */
+public class ShardNode {
+    private static final String TICKET_PREFIX_FORMAT = "S%d-";
+    
+    private final int shardId;
+    private final ParkingLot lot;
+    private final AtomicLong summaryVersion = new AtomicLong();
+    
+    public ShardNode(int shardId, String lotName, int firstFloorNumber, int numberOfFloors) {
+        this.shardId = shardId;
+        this.lot = ParkingLot.create(lotName + " #" + shardId, firstFloorNumber, numberOfFloors,
+                ticketIdPrefix(shardId));
+    }
+    
+    /**
+     * Ticket ID prefix for tickets issued by the given shard, e.g. "S2-TKT-".
+     */
+    static String ticketIdPrefix(int shardId) {
+        return String.format(TICKET_PREFIX_FORMAT, shardId) + ParkingTicket.DEFAULT_TICKET_ID_PREFIX;
+    }
+    
+    /**
+     * Extracts the owning shard ID from a ticket ID, or -1 if the ID was not issued by a shard.
+     */
+    static int shardIdOf(String ticketId) {
+        if (ticketId == null || ticketId.length() < 3 || ticketId.charAt(0) != 'S') {
+            return -1;
+        }
+        int dash = ticketId.indexOf('-');
+        if (dash < 2) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(ticketId.substring(1, dash));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    public void addParkingSpot(int floorNumber, ParkingSpot spot) {
+        lot.addParkingSpot(floorNumber, spot);
+    }
+    
+    public ParkingTicket parkVehicle(Vehicle vehicle) {
+        return lot.parkVehicle(vehicle);
+    }
+    
+    public double exitVehicle(String ticketId) {
+        return lot.exitVehicle(ticketId);
+    }
+    
+    /**
+     * Takes a fresh free-count summary of this shard for gossiping.
+     */
+    public FreeCountSummary summarize() {
+        long[] freeBySize = new long[SpotSize.values().length];
+        for (ParkingFloor floor : lot.getFloors()) {
+            for (SpotSize size : SpotSize.values()) {
+                freeBySize[size.ordinal()] += floor.getAvailableSpotCountBySize(size);
+            }
+        }
+        return new FreeCountSummary(shardId, summaryVersion.incrementAndGet(), freeBySize);
+    }
+    
+    public int getShardId() {
+        return shardId;
+    }
+    
+    public ParkingLot getLot() {
+        return lot;
+    }
+    
+    @Override
+    public String toString() {
+        return "Shard " + shardId + " [" + lot.getName() + "]";
+    }
+}
@@ -0,0 +1,117 @@
+package com.airtribe.cluster;
+
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.entity.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Routes gate requests across shard nodes.
+ * Entries go to the shard with the most gossiped free capacity for the vehicle,
+ * spilling over to the next shard if that one turns out to be full.
+ * Exits go straight to the owning shard, which is encoded in the ticket ID.
+ */
+public class ShardRouter {
+    private final Map<Integer, ShardNode> nodes;
+    private final Map<Integer, FreeCountSummary> summaries; // shardId -> latest known summary
+    private volatile boolean verbose = true;
+    
+    public ShardRouter(List<ShardNode> nodes) {
+        this.nodes = new ConcurrentHashMap<>();
+        this.summaries = new ConcurrentHashMap<>();
+        for (ShardNode node : nodes) {
+            this.nodes.put(node.getShardId(), node);
+            acceptSummary(node.summarize());
+        }
+    }
+    
+    /**
+     * Accepts a gossiped summary, ignoring it if a newer one is already known.
+     */
+    public void acceptSummary(FreeCountSummary summary) {
+        summaries.merge(summary.getShardId(), summary,
+                (current, incoming) -> incoming.getVersion() > current.getVersion() ? incoming : current);
+    }
+    
+    /**
+     * Parks a vehicle on the shard with the most free capacity for it.
+     * Shards reporting no capacity are still tried last, since their summary may be stale.
+     */
+    public ParkingTicket parkVehicle(Vehicle vehicle) {
+        SpotSize requiredSize = vehicle.getRequiredSpotSize();
+        
+        for (ShardNode node : rankShards(requiredSize)) {
+            ParkingTicket ticket = node.parkVehicle(vehicle);
+            if (ticket != null) {
+                summaries.computeIfPresent(node.getShardId(),
+                        (id, summary) -> summary.consumed(ticket.getAssignedSpot().getSize()));
+                return ticket;
+            }
+            summaries.computeIfPresent(node.getShardId(), (id, summary) -> summary.exhausted(requiredSize));
+        }
+        return null;
+    }
+    
+    /**
+     * Processes a vehicle exit on the shard that issued the ticket.
+     * Returns -1 for tickets that no known shard owns, like ParkingLot does for unknown tickets.
+     */
+    public double exitVehicle(String ticketId) {
+        ShardNode owner = nodes.get(ShardNode.shardIdOf(ticketId));
+        if (owner == null) {
+            if (verbose) {
+                System.out.println("No shard owns ticket ID: " + ticketId);
+            }
+            return -1;
+        }
+        return owner.exitVehicle(ticketId);
+    }
+    
+    private List<ShardNode> rankShards(SpotSize requiredSize) {
+        List<ShardNode> ranked = new ArrayList<>(nodes.values());
+        ranked.sort(Comparator.comparingLong((ShardNode node) -> -knownFreeFor(node, requiredSize))
+                .thenComparingInt(ShardNode::getShardId));
+        return ranked;
+    }
+    
+    private long knownFreeFor(ShardNode node, SpotSize requiredSize) {
+        FreeCountSummary summary = summaries.get(node.getShardId());
+        return summary == null ? 0 : summary.getFreeFor(requiredSize);
+    }
+    
+    /**
+     * Total free spots as currently known from gossip.
+     */
+    public long getKnownAvailableSpots() {
+        return summaries.values().stream()
+                .mapToLong(summary -> summary.getFreeFor(SpotSize.SMALL))
+                .sum();
+    }
+    
+    /**
+     * Turns per-operation console output on or off, for the router and every shard's lot.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+        for (ShardNode node : nodes.values()) {
+            node.getLot().setVerbose(verbose);
+        }
+    }
+    
+    public boolean isVerbose() {
+        return verbose;
+    }
+    
+    public FreeCountSummary getSummary(int shardId) {
+        return summaries.get(shardId);
+    }
+    
+    public List<ShardNode> getNodes() {
+        return new ArrayList<>(nodes.values());
+    }
+}
@@ -2,15 +2,11 @@ package com.airtribe.entity;
 
 /**
  * Represents a bus vehicle.
+ * Kept as a convenience constructor for the built-in BUS class.
  */
 public class Bus extends Vehicle {
     
     public Bus(String licensePlate) {
-        super(licensePlate, VehicleType.BUS);
-    }
-    
-    @Override
-    public SpotSize getRequiredSpotSize() {
-        return SpotSize.LARGE;
+        super(licensePlate, VehicleRegistry.BUS);
     }
 }
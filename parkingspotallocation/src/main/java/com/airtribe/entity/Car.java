@@ -2,15 +2,11 @@ package com.airtribe.entity;
 
 /**
  * Represents a car vehicle.
+ * Kept as a convenience constructor for the built-in CAR class.
  */
 public class Car extends Vehicle {
     
     public Car(String licensePlate) {
-        super(licensePlate, VehicleType.CAR);
-    }
-    
-    @Override
-    public SpotSize getRequiredSpotSize() {
-        return SpotSize.MEDIUM;
+        super(licensePlate, VehicleRegistry.CAR);
     }
 }
@@ -0,0 +1,300 @@
+package com.airtribe.entity;
+
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitset index over the spots of one floor.
+ * Keeps one bitset per spot size and per capability (fixed once a spot is added)
+ * plus a live availability bitset that ParkingSpot updates on every state change.
+ * A SpotCriterion is answered by intersecting these bitsets. Both the availability
+ * bitset and each compiled criterion carry a summary level (one bit per non-empty
+ * word), so a lookup first intersects the summaries and only touches words that
+ * can actually hold a match.
+ * Free counts per spot size are kept in counters next to the bitset, so they
+ * are O(1) to read. When occupancy history is enabled, the same state changes
+ * are also written to the floor's SpotOccupancyTimeline.
+ * Spots are expected to be added during setup, before traffic starts.
+ */
+final class FloorSpotIndex {
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private int spotCount;
+    private long[][] sizeBits;
+    private long[][] capabilityBits;
+    private volatile ParkingSpot[] table;
+    private volatile AtomicLongArray available;
+    private volatile AtomicLongArray availableSummary;
+    private final AtomicIntegerArray spotCountBySize = new AtomicIntegerArray(SpotSize.values().length);
+    private final AtomicIntegerArray availableBySize = new AtomicIntegerArray(SpotSize.values().length);
+    private final Map<SpotCriterion, CompiledCriterion> compiled = new ConcurrentHashMap<>(); // keyed by value, so lookups do not box
+    private volatile SpotOccupancyTimeline timeline; // null unless occupancy history is enabled
+    
+    FloorSpotIndex() {
+        int words = INITIAL_CAPACITY >>> 6;
+        this.sizeBits = new long[SpotSize.values().length][words];
+        this.capabilityBits = new long[SpotCapability.values().length][words];
+        this.table = new ParkingSpot[INITIAL_CAPACITY];
+        this.available = new AtomicLongArray(words);
+        this.availableSummary = new AtomicLongArray(summaryLength(words));
+    }
+    
+    private static int summaryLength(int words) {
+        return (words + 63) >>> 6;
+    }
+    
+    /**
+     * Adds a spot and returns its index on the floor.
+     */
+    synchronized int add(ParkingSpot spot) {
+        int index = spotCount;
+        ensureCapacity(index + 1);
+        int word = index >>> 6;
+        long bit = 1L << index;
+        sizeBits[spot.getSize().ordinal()][word] |= bit;
+        for (int capabilities = spot.getCapabilityMask(); capabilities != 0; capabilities &= capabilities - 1) {
+            capabilityBits[Integer.numberOfTrailingZeros(capabilities)][word] |= bit;
+        }
+        table[index] = spot;
+        spotCountBySize.incrementAndGet(spot.getSize().ordinal());
+        if (spot.isAvailable()) {
+            markAvailable(index);
+        }
+        spotCount = index + 1;
+        compiled.clear();
+        return index;
+    }
+    
+    /**
+     * Grows the index once ahead of a bulk load.
+     */
+    synchronized void reserve(int additionalSpots) {
+        ensureCapacity(spotCount + additionalSpots);
+    }
+    
+    private void ensureCapacity(int spots) {
+        if (spots <= table.length) {
+            return;
+        }
+        int capacity = Math.max(spots, table.length * 2);
+        int words = (capacity + 63) >>> 6;
+        for (int i = 0; i < sizeBits.length; i++) {
+            sizeBits[i] = Arrays.copyOf(sizeBits[i], words);
+        }
+        for (int i = 0; i < capabilityBits.length; i++) {
+            capabilityBits[i] = Arrays.copyOf(capabilityBits[i], words);
+        }
+        AtomicLongArray grown = new AtomicLongArray(words);
+        for (int i = 0; i < available.length(); i++) {
+            grown.set(i, available.get(i));
+        }
+        AtomicLongArray grownSummary = new AtomicLongArray(summaryLength(words));
+        for (int i = 0; i < availableSummary.length(); i++) {
+            grownSummary.set(i, availableSummary.get(i));
+        }
+        table = Arrays.copyOf(table, capacity);
+        available = grown;
+        availableSummary = grownSummary;
+    }
+    
+    void markAvailable(int index) {
+        AtomicLongArray summary = availableSummary;
+        if ((setBit(available, index) & (1L << index)) == 0) {
+            availableBySize.incrementAndGet(table[index].getSize().ordinal());
+        }
+        setBit(summary, index >>> 6);
+        SpotOccupancyTimeline history = timeline;
+        if (history != null) {
+            history.closed(index, System.currentTimeMillis());
+        }
+    }
+    
+    void markOccupied(int index) {
+        AtomicLongArray bits = available;
+        AtomicLongArray summary = availableSummary;
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long previous = clearBit(bits, index);
+        if ((previous & bit) != 0) {
+            availableBySize.decrementAndGet(table[index].getSize().ordinal());
+        }
+        if ((previous & ~bit) == 0) {
+            // The word just emptied; drop its summary bit, then restore it if a
+            // concurrent markAvailable refilled the word in between
+            clearBit(summary, word);
+            if (bits.get(word) != 0) {
+                setBit(summary, word);
+            }
+        }
+        SpotOccupancyTimeline history = timeline;
+        if (history != null) {
+            history.opened(index, System.currentTimeMillis());
+        }
+    }
+    
+    /**
+     * Starts recording occupancy history for the spots added so far.
+     * Spots that are occupied right now are recorded from this moment on.
+     */
+    synchronized SpotOccupancyTimeline enableTimeline(int retainedDays, ZoneOffset offset) {
+        if (timeline != null) {
+            throw new IllegalStateException("Occupancy timeline already enabled");
+        }
+        SpotOccupancyTimeline history = new SpotOccupancyTimeline(spotCount, retainedDays, offset);
+        timeline = history;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < spotCount; i++) {
+            ParkingSpot spot = table[i];
+            // Under the spot's monitor, so the scan and the spot's own transitions do not interleave
+            synchronized (spot) {
+                if (!spot.isAvailable()) {
+                    history.opened(i, now);
+                }
+            }
+        }
+        return history;
+    }
+    
+    SpotOccupancyTimeline getTimeline() {
+        return timeline;
+    }
+    
+    /**
+     * Sets a bit and returns the previous value of its word.
+     */
+    private static long setBit(AtomicLongArray bits, int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+        } while (!bits.compareAndSet(word, current, current | bit));
+        return current;
+    }
+    
+    /**
+     * Clears a bit and returns the previous value of its word.
+     */
+    private static long clearBit(AtomicLongArray bits, int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+        } while (!bits.compareAndSet(word, current, current & ~bit));
+        return current;
+    }
+    
+    /**
+     * Spot registered at the given index, or null if there is none.
+     */
+    ParkingSpot spotAt(int index) {
+        ParkingSpot[] current = table;
+        return index >= 0 && index < current.length ? current[index] : null;
+    }
+    
+    /**
+     * Finds the first available spot at or after fromIndex matching the criterion,
+     * or returns null if there is none.
+     */
+    ParkingSpot find(SpotCriterion criterion, int fromIndex) {
+        CompiledCriterion matcher = compile(criterion);
+        AtomicLongArray bits = available;
+        AtomicLongArray summary = availableSummary;
+        long[] masks = matcher.masks;
+        long[] matchSummary = matcher.summary;
+        int fromWord = fromIndex >>> 6;
+        int limit = Math.min(matchSummary.length, summary.length());
+        for (int s = fromWord >>> 6; s < limit; s++) {
+            long words = summary.get(s) & matchSummary[s];
+            if (s == fromWord >>> 6) {
+                words &= -1L << fromWord;
+            }
+            while (words != 0) {
+                int word = (s << 6) + Long.numberOfTrailingZeros(words);
+                words &= words - 1;
+                long candidates = bits.get(word) & masks[word];
+                if (word == fromWord) {
+                    candidates &= -1L << fromIndex;
+                }
+                if (candidates != 0) {
+                    return table[(word << 6) + Long.numberOfTrailingZeros(candidates)];
+                }
+            }
+        }
+        return null;
+    }
+    
+    int countAvailable() {
+        int count = 0;
+        for (int i = 0; i < availableBySize.length(); i++) {
+            count += availableBySize.get(i);
+        }
+        return count;
+    }
+    
+    int countAvailable(SpotSize size) {
+        return availableBySize.get(size.ordinal());
+    }
+    
+    int countSpots(SpotSize size) {
+        return spotCountBySize.get(size.ordinal());
+    }
+    
+    int countAvailable(SpotCriterion criterion) {
+        CompiledCriterion matcher = compile(criterion);
+        AtomicLongArray bits = available;
+        int count = 0;
+        for (int word = 0; word < matcher.masks.length; word++) {
+            if (matcher.masks[word] != 0) {
+                count += Long.bitCount(bits.get(word) & matcher.masks[word]);
+            }
+        }
+        return count;
+    }
+    
+    private CompiledCriterion compile(SpotCriterion criterion) {
+        CompiledCriterion matcher = compiled.get(criterion);
+        return matcher != null ? matcher : compileLocked(criterion);
+    }
+    
+    private synchronized CompiledCriterion compileLocked(SpotCriterion criterion) {
+        return compiled.computeIfAbsent(criterion, key -> {
+            int wordCount = (spotCount + 63) >>> 6;
+            long[] masks = Arrays.copyOf(sizeBits[criterion.getSize().ordinal()], wordCount);
+            long[] summary = new long[summaryLength(wordCount)];
+            for (int word = 0; word < wordCount; word++) {
+                for (SpotCapability capability : SpotCapability.values()) {
+                    if ((criterion.getRequiredCapabilities() & capability.mask()) != 0) {
+                        masks[word] &= capabilityBits[capability.ordinal()][word];
+                    }
+                    // A capability both required and excluded matches nothing
+                    if ((criterion.getExcludedCapabilities() & capability.mask()) != 0) {
+                        masks[word] &= ~capabilityBits[capability.ordinal()][word];
+                    }
+                }
+                if (masks[word] != 0) {
+                    summary[word >>> 6] |= 1L << word;
+                }
+            }
+            return new CompiledCriterion(masks, summary);
+        });
+    }
+    
+    /**
+     * Static part of a criterion: a mask per word plus a summary of the non-empty words.
+     */
+    private static final class CompiledCriterion {
+        final long[] masks;
+        final long[] summary;
+        
+        CompiledCriterion(long[] masks, long[] summary) {
+            this.masks = masks;
+            this.summary = summary;
+        }
+    }
+}
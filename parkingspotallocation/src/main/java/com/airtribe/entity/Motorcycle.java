@@ -2,15 +2,11 @@ package com.airtribe.entity;
 
 /**
  * Represents a motorcycle vehicle.
+ * Kept as a convenience constructor for the built-in MOTORCYCLE class.
  */
 public class Motorcycle extends Vehicle {
     
     public Motorcycle(String licensePlate) {
-        super(licensePlate, VehicleType.MOTORCYCLE);
-    }
-    
-    @Override
-    public SpotSize getRequiredSpotSize() {
-        return SpotSize.SMALL;
+        super(licensePlate, VehicleRegistry.MOTORCYCLE);
     }
 }
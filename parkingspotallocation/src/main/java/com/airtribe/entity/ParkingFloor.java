@@ -2,6 +2,7 @@ package com.airtribe.entity;
 
 import com.airtribe.strategy.SpotFindingStrategy;
 
+import java.time.ZoneOffset;
 import java.util.*;
 
 /**
@@ -12,18 +13,36 @@ import java.util.*;
 public class ParkingFloor {
     private final int floorNumber;
     private final List<ParkingSpot> spots;
+    private final FloorSpotIndex spotIndex;
     private SpotFindingStrategy spotFindingStrategy;
     
     public ParkingFloor(int floorNumber, SpotFindingStrategy spotFindingStrategy) {
         this.floorNumber = floorNumber;
         this.spots = new ArrayList<>();
+        this.spotIndex = new FloorSpotIndex();
         this.spotFindingStrategy = spotFindingStrategy;
     }
     
-    public void addSpot(ParkingSpot spot) {
+    public synchronized void addSpot(ParkingSpot spot) {
+        spot.attach(spotIndex);
         spots.add(spot);
     }
     
+    /**
+     * Adds many spots at once, sizing the floor's tables and index a single time.
+     * Used by bulk layout loading.
+     */
+    public synchronized void addSpots(Collection<ParkingSpot> newSpots) {
+        spotIndex.reserve(newSpots.size());
+        if (spots instanceof ArrayList) {
+            ((ArrayList<ParkingSpot>) spots).ensureCapacity(spots.size() + newSpots.size());
+        }
+        for (ParkingSpot spot : newSpots) {
+            spot.attach(spotIndex);
+            spots.add(spot);
+        }
+    }
+    
     /**
      * Finds an available spot for the given vehicle using the configured strategy.
      * Thread-safe method that delegates to the strategy implementation.
@@ -32,6 +51,37 @@ public class ParkingFloor {
         return spotFindingStrategy.findSpot(spots, vehicle);
     }
     
+    /**
+     * Finds an available spot for the vehicle matching the query, using the floor's size
+     * and capability bitsets. Criteria are tried in order; those whose size the vehicle
+     * does not fit are skipped. Lock-free: answered by bitset intersection, without scanning spots.
+     */
+    public ParkingSpot findAvailableSpot(Vehicle vehicle, SpotQuery query) {
+        for (int i = 0; i < query.getCriterionCount(); i++) {
+            SpotCriterion criterion = query.getCriterion(i);
+            if (!criterion.fits(vehicle)) {
+                continue;
+            }
+            ParkingSpot spot = findAvailableSpot(criterion);
+            if (spot != null) {
+                return spot;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Finds an available spot matching a single criterion, or null if there is none.
+     */
+    public ParkingSpot findAvailableSpot(SpotCriterion criterion) {
+        ParkingSpot spot = spotIndex.find(criterion, 0);
+        // The bitset can briefly lag a concurrent state change; skip spots taken in the meantime
+        while (spot != null && !spot.isAvailable()) {
+            spot = spotIndex.find(criterion, spot.getIndexOnFloor() + 1);
+        }
+        return spot;
+    }
+    
     /**
      * Allows changing the spot-finding strategy at runtime.
      * Thread-safe setter for the strategy.
@@ -55,14 +105,82 @@ public class ParkingFloor {
         return new ArrayList<>(spots);
     }
     
+    /**
+     * Spot at the given position on this floor (see ParkingSpot.getIndexOnFloor()), or null.
+     * O(1); used to apply replicated changes that identify spots by position.
+     */
+    public ParkingSpot getSpot(int indexOnFloor) {
+        return spotIndex.spotAt(indexOnFloor);
+    }
+    
     public long getAvailableSpotCount() {
-        return spots.stream().filter(ParkingSpot::isAvailable).count();
+        return spotIndex.countAvailable();
     }
     
     public long getAvailableSpotCountBySize(SpotSize size) {
-        return spots.stream()
-                .filter(spot -> spot.isAvailable() && spot.getSize() == size)
-                .count();
+        return spotIndex.countAvailable(size);
+    }
+    
+    public long getSpotCountBySize(SpotSize size) {
+        return spotIndex.countSpots(size);
+    }
+    
+    /**
+     * Live share of occupied spots of the given size, from 0.0 (all free) to 1.0 (all taken).
+     * O(1) and lock-free on the hot path; a floor without spots of that size reports 1.0.
+     */
+    public double getUtilization(SpotSize size) {
+        long total = spotIndex.countSpots(size);
+        if (total == 0) {
+            return 1.0;
+        }
+        return 1.0 - (double) spotIndex.countAvailable(size) / total;
+    }
+    
+    /**
+     * Counts available spots matching a criterion, e.g. MEDIUM spots with a charger.
+     */
+    public long getAvailableSpotCount(SpotCriterion criterion) {
+        return spotIndex.countAvailable(criterion);
+    }
+    
+    /**
+     * True if the floor shows an available spot the vehicle fits for one of the query's criteria.
+     * Checks the O(1) per-size counter before the bitset search, so a full floor is ruled out cheaply.
+     */
+    public boolean hasAvailableSpot(Vehicle vehicle, SpotQuery query) {
+        for (int i = 0; i < query.getCriterionCount(); i++) {
+            SpotCriterion criterion = query.getCriterion(i);
+            if (criterion.fits(vehicle) && spotIndex.countAvailable(criterion.getSize()) > 0
+                    && hasAvailableSpot(criterion)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * True if the floor's bitsets show an available spot matching a criterion.
+     * Lock-free and stops at the first match; may briefly lag a concurrent state change.
+     */
+    public boolean hasAvailableSpot(SpotCriterion criterion) {
+        return spotIndex.find(criterion, 0) != null;
+    }
+    
+    /**
+     * Starts keeping per-spot occupancy history for the spots on this floor, in day
+     * bitmaps of one bit per minute. Enable it once the floor's spots have been added;
+     * spots added later are not recorded.
+     */
+    public SpotOccupancyTimeline enableOccupancyTimeline(int retainedDays, ZoneOffset offset) {
+        return spotIndex.enableTimeline(retainedDays, offset);
+    }
+    
+    /**
+     * Occupancy history of this floor's spots, or null if it is not enabled.
+     */
+    public SpotOccupancyTimeline getOccupancyTimeline() {
+        return spotIndex.getTimeline();
     }
     
     @Override
@@ -7,14 +7,32 @@ package com.airtribe.entity;
 public class ParkingSpot {
     private final String spotId;
     private final SpotSize size;
+    private final int sizeMask;
     private final int floorNumber;
+    private final int capabilities;
     private ParkingSpotStatus status;
     private Vehicle parkedVehicle;
+    private FloorSpotIndex floorIndex; // set once the spot is added to a floor
+    private int indexOnFloor = -1;
     
     public ParkingSpot(String spotId, SpotSize size, int floorNumber) {
+        this(spotId, size, floorNumber, 0);
+    }
+    
+    public ParkingSpot(String spotId, SpotSize size, int floorNumber, SpotCapability... capabilities) {
+        this(spotId, size, floorNumber, SpotCapability.maskOf(capabilities));
+    }
+    
+    /**
+     * Creates a spot whose capabilities are given as a mask of SpotCapability bits.
+     * Used by layout loading, which reads capabilities in packed form.
+     */
+    public ParkingSpot(String spotId, SpotSize size, int floorNumber, int capabilityMask) {
         this.spotId = spotId;
         this.size = size;
+        this.sizeMask = size.mask();
         this.floorNumber = floorNumber;
+        this.capabilities = capabilityMask;
         this.status = ParkingSpotStatus.AVAILABLE;
         this.parkedVehicle = null;
     }
@@ -24,30 +42,17 @@ public class ParkingSpot {
     }
     
     public synchronized boolean canFitVehicle(Vehicle vehicle) {
-        // A spot can fit a vehicle if it's available and the size matches or is larger
-        if (!isAvailable()) {
-            return false;
-        }
-        
-        SpotSize requiredSize = vehicle.getRequiredSpotSize();
-        
-        // Check if spot size can accommodate the vehicle
-        switch (this.size) {
-            case LARGE:
-                return true; // Large spots can fit any vehicle
-            case MEDIUM:
-                return requiredSize == SpotSize.SMALL || requiredSize == SpotSize.MEDIUM;
-            case SMALL:
-                return requiredSize == SpotSize.SMALL;
-            default:
-                return false;
-        }
+        // A spot can fit a vehicle if it's available and its size is in the vehicle's size mask
+        return status == ParkingSpotStatus.AVAILABLE && (vehicle.getSpotSizeMask() & sizeMask) != 0;
     }
     
     public synchronized boolean parkVehicle(Vehicle vehicle) {
         if (canFitVehicle(vehicle)) {
             this.parkedVehicle = vehicle;
             this.status = ParkingSpotStatus.OCCUPIED;
+            if (floorIndex != null) {
+                floorIndex.markOccupied(indexOnFloor);
+            }
             return true;
         }
         return false;
@@ -55,11 +60,26 @@ public class ParkingSpot {
     
     public synchronized Vehicle removeVehicle() {
         Vehicle vehicle = this.parkedVehicle;
+        ParkingSpotStatus previous = this.status;
         this.parkedVehicle = null;
         this.status = ParkingSpotStatus.AVAILABLE;
+        if (floorIndex != null && previous != ParkingSpotStatus.AVAILABLE) {
+            floorIndex.markAvailable(indexOnFloor);
+        }
         return vehicle;
     }
     
+    /**
+     * Links the spot to its floor's index so state changes keep the floor bitsets current.
+     */
+    synchronized void attach(FloorSpotIndex floorIndex) {
+        if (this.floorIndex != null) {
+            throw new IllegalStateException("Spot " + spotId + " already belongs to a floor");
+        }
+        this.indexOnFloor = floorIndex.add(this);
+        this.floorIndex = floorIndex;
+    }
+    
     public String getSpotId() {
         return spotId;
     }
@@ -72,6 +92,21 @@ public class ParkingSpot {
         return floorNumber;
     }
     
+    /**
+     * Position of the spot on its floor, or -1 if it has not been added to a floor.
+     */
+    public synchronized int getIndexOnFloor() {
+        return indexOnFloor;
+    }
+    
+    public int getCapabilityMask() {
+        return capabilities;
+    }
+    
+    public boolean hasCapability(SpotCapability capability) {
+        return (capabilities & capability.mask()) != 0;
+    }
+    
     public synchronized ParkingSpotStatus getStatus() {
         return status;
     }
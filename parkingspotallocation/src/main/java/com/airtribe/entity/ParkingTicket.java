@@ -1,35 +1,125 @@
 package com.airtribe.entity;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.Duration;
+import java.time.ZoneId;
 
 /**
  * Represents a parking ticket issued when a vehicle enters the parking lot.
  * Contains all information about the parking transaction.
  */
 public class ParkingTicket {
+    public static final String DEFAULT_TICKET_ID_PREFIX = "TKT-";
+    
     private static long ticketCounter = 0;
     
     private final String ticketId;
+    private final long sequence;
     private final Vehicle vehicle;
     private final ParkingSpot assignedSpot;
     private final LocalDateTime entryTime;
+    private final long entryEpochMillis;
     private LocalDateTime exitTime;
     private double fee;
     private boolean isPaid;
+    private volatile double quotedHourlyRate = Double.NaN;
+    private volatile double quotedBaseFee = Double.NaN;
     
     public ParkingTicket(Vehicle vehicle, ParkingSpot assignedSpot) {
-        this.ticketId = generateTicketId();
+        this(DEFAULT_TICKET_ID_PREFIX, vehicle, assignedSpot);
+    }
+    
+    /**
+     * Creates a ticket whose ID starts with the given prefix.
+     * Used by sharded lots so the owning shard can be derived from the ticket ID.
+     */
+    public ParkingTicket(String ticketIdPrefix, Vehicle vehicle, ParkingSpot assignedSpot) {
+        this(ticketIdPrefix, nextSequence(), vehicle, assignedSpot, Instant.now());
+    }
+    
+    private ParkingTicket(String ticketIdPrefix, long sequence, Vehicle vehicle, ParkingSpot assignedSpot, Instant entry) {
+        this.sequence = sequence;
+        this.ticketId = formatTicketId(ticketIdPrefix, sequence);
         this.vehicle = vehicle;
         this.assignedSpot = assignedSpot;
-        this.entryTime = LocalDateTime.now();
+        this.entryEpochMillis = entry.toEpochMilli();
+        this.entryTime = LocalDateTime.ofInstant(entry, ZoneId.systemDefault());
         this.exitTime = null;
         this.fee = 0.0;
         this.isPaid = false;
     }
     
-    private static synchronized String generateTicketId() {
-        return "TKT-" + String.format("%06d", ++ticketCounter);
+    /**
+     * Recreates a ticket issued by another lot instance, e.g. a replication primary,
+     * with its original number, entry time and quoted prices.
+     * Advances this JVM's ticket counter past the sequence so new tickets never reuse it.
+     */
+    public static ParkingTicket restore(String ticketIdPrefix, long sequence, Vehicle vehicle, ParkingSpot assignedSpot,
+                                        long entryEpochMillis, double quotedHourlyRate, double quotedBaseFee) {
+        advanceSequence(sequence);
+        ParkingTicket ticket = new ParkingTicket(ticketIdPrefix, sequence, vehicle, assignedSpot,
+                Instant.ofEpochMilli(entryEpochMillis));
+        if (!Double.isNaN(quotedHourlyRate)) {
+            ticket.lockHourlyRate(quotedHourlyRate);
+        }
+        if (!Double.isNaN(quotedBaseFee)) {
+            ticket.lockBaseFee(quotedBaseFee);
+        }
+        return ticket;
+    }
+    
+    /**
+     * Creates a closed ticket that is never issued, from a pooled ticket's primitive fields,
+     * so a strategy that only prices ParkingTicket objects can still price it.
+     * Does not consume a ticket number and has no spot.
+     */
+    public static ParkingTicket detached(Vehicle vehicle, long entryEpochMillis, long exitEpochMillis,
+                                         double quotedHourlyRate, double quotedBaseFee) {
+        ParkingTicket ticket = new ParkingTicket(DEFAULT_TICKET_ID_PREFIX, 0, vehicle, null,
+                Instant.ofEpochMilli(entryEpochMillis));
+        ticket.setExitTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(exitEpochMillis), ZoneId.systemDefault()));
+        if (!Double.isNaN(quotedHourlyRate)) {
+            ticket.lockHourlyRate(quotedHourlyRate);
+        }
+        if (!Double.isNaN(quotedBaseFee)) {
+            ticket.lockBaseFee(quotedBaseFee);
+        }
+        return ticket;
+    }
+    
+    /**
+     * Ticket ID for the given prefix and ticket number, e.g. "TKT-000042".
+     */
+    public static String formatTicketId(String ticketIdPrefix, long sequence) {
+        return ticketIdPrefix + String.format("%06d", sequence);
+    }
+    
+    private static synchronized void advanceSequence(long seen) {
+        if (ticketCounter < seen) {
+            ticketCounter = seen;
+        }
+    }
+    
+    private static synchronized long nextSequence() {
+        return ++ticketCounter;
+    }
+    
+    /**
+     * Reserves the next ticket number without creating a ticket object.
+     * Used by pooled tickets so their numbers never collide with regular tickets.
+     */
+    public static long reserveSequence() {
+        return nextSequence();
+    }
+    
+    /**
+     * Billable hours between two epoch-millisecond timestamps, with the same
+     * rounding as getParkingDurationInHours(): whole hours, at least 1.
+     */
+    public static long billableHours(long entryEpochMillis, long exitEpochMillis) {
+        long hours = (exitEpochMillis - entryEpochMillis) / 3_600_000L;
+        return hours == 0 ? 1 : hours;
     }
     
     public void setExitTime(LocalDateTime exitTime) {
@@ -40,6 +130,47 @@ public class ParkingTicket {
         this.fee = fee;
     }
     
+    /**
+     * Locks the hourly rate quoted at entry into the ticket.
+     * The first quote wins; later tariff changes do not affect this ticket.
+     */
+    public synchronized void lockHourlyRate(double hourlyRate) {
+        if (Double.isNaN(quotedHourlyRate)) {
+            this.quotedHourlyRate = hourlyRate;
+        }
+    }
+    
+    public boolean hasQuotedHourlyRate() {
+        return !Double.isNaN(quotedHourlyRate);
+    }
+    
+    /**
+     * Hourly rate locked in at entry, or NaN if the ticket is priced at exit.
+     */
+    public double getQuotedHourlyRate() {
+        return quotedHourlyRate;
+    }
+    
+    /**
+     * Locks the base fee quoted at entry into the ticket. The first quote wins.
+     */
+    public synchronized void lockBaseFee(double baseFee) {
+        if (Double.isNaN(quotedBaseFee)) {
+            this.quotedBaseFee = baseFee;
+        }
+    }
+    
+    public boolean hasQuotedBaseFee() {
+        return !Double.isNaN(quotedBaseFee);
+    }
+    
+    /**
+     * Base fee locked in at entry, or NaN if the ticket is priced at exit.
+     */
+    public double getQuotedBaseFee() {
+        return quotedBaseFee;
+    }
+    
     public void markAsPaid() {
         this.isPaid = true;
     }
@@ -48,6 +179,13 @@ public class ParkingTicket {
         return ticketId;
     }
     
+    /**
+     * Numeric part of the ticket ID; unique per JVM.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+    
     public Vehicle getVehicle() {
         return vehicle;
     }
@@ -60,6 +198,14 @@ public class ParkingTicket {
         return entryTime;
     }
     
+    /**
+     * Entry time as epoch milliseconds; same instant as getEntryTime().
+     * Used for time-bucketed indexing without date arithmetic.
+     */
+    public long getEntryEpochMillis() {
+        return entryEpochMillis;
+    }
+    
     public LocalDateTime getExitTime() {
         return exitTime;
     }
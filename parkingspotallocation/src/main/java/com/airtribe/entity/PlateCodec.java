@@ -0,0 +1,49 @@
+package com.airtribe.entity;
+
+/**
+ * Packs license plates into a single long.
+ * Plates of up to 12 characters drawn from 0-9, A-Z and '-' are stored as a
+ * base-38 number (digit 0 is reserved as "no character"), which always fits
+ * in 63 bits. Other plates cannot be packed and are kept as Strings by Vehicle.
+ */
+public final class PlateCodec {
+    public static final long NOT_PACKABLE = -1L;
+    public static final int MAX_PACKED_LENGTH = 12;
+    
+    private static final int RADIX = 38;
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ-";
+    
+    private PlateCodec() {
+    }
+    
+    /**
+     * Encodes a plate, or returns NOT_PACKABLE if it is too long or uses other characters.
+     */
+    public static long encode(String plate) {
+        if (plate == null || plate.isEmpty() || plate.length() > MAX_PACKED_LENGTH) {
+            return NOT_PACKABLE;
+        }
+        long packed = 0;
+        for (int i = 0; i < plate.length(); i++) {
+            int digit = ALPHABET.indexOf(plate.charAt(i));
+            if (digit < 0) {
+                return NOT_PACKABLE;
+            }
+            packed = packed * RADIX + (digit + 1);
+        }
+        return packed;
+    }
+    
+    public static String decode(long packed) {
+        if (packed <= 0) {
+            throw new IllegalArgumentException("Not a packed plate: " + packed);
+        }
+        char[] chars = new char[MAX_PACKED_LENGTH];
+        int start = chars.length;
+        while (packed > 0) {
+            chars[--start] = ALPHABET.charAt((int) (packed % RADIX) - 1);
+            packed /= RADIX;
+        }
+        return new String(chars, start, chars.length - start);
+    }
+}
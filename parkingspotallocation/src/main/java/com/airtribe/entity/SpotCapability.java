@@ -0,0 +1,26 @@
+package com.airtribe.entity;
+
+/**
+ * Enum representing optional capabilities of a parking spot.
+ */
+public enum SpotCapability {
+    CHARGER,          // EV charger installed
+    ACCESSIBLE,       // Accessible bay
+    COVERED,          // Covered from weather
+    PERMIT_RESERVED;  // Reserved for permit holders
+    
+    /**
+     * Single bit identifying this capability in capability masks.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+    
+    public static int maskOf(SpotCapability... capabilities) {
+        int mask = 0;
+        for (SpotCapability capability : capabilities) {
+            mask |= capability.mask();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,75 @@
+package com.airtribe.entity;
+
+/**
+ * One step of a SpotQuery: a spot size plus capabilities the spot must have
+ * and capabilities it must not have.
+ * Immutable.
+ */
+public final class SpotCriterion {
+    private final SpotSize size;
+    private final int requiredCapabilities;
+    private final int excludedCapabilities;
+    
+    private SpotCriterion(SpotSize size, int requiredCapabilities, int excludedCapabilities) {
+        this.size = size;
+        this.requiredCapabilities = requiredCapabilities;
+        this.excludedCapabilities = excludedCapabilities;
+    }
+    
+    public static SpotCriterion of(SpotSize size, SpotCapability... requiredCapabilities) {
+        return new SpotCriterion(size, SpotCapability.maskOf(requiredCapabilities), 0);
+    }
+    
+    static SpotCriterion of(SpotSize size, int requiredCapabilities, int excludedCapabilities) {
+        return new SpotCriterion(size, requiredCapabilities, excludedCapabilities);
+    }
+    
+    /**
+     * Returns a copy that additionally rejects spots with any of the given capabilities.
+     */
+    public SpotCriterion excluding(SpotCapability... capabilities) {
+        return new SpotCriterion(size, requiredCapabilities, excludedCapabilities | SpotCapability.maskOf(capabilities));
+    }
+    
+    public SpotSize getSize() {
+        return size;
+    }
+    
+    public int getRequiredCapabilities() {
+        return requiredCapabilities;
+    }
+    
+    public int getExcludedCapabilities() {
+        return excludedCapabilities;
+    }
+    
+    /**
+     * True if spots of this criterion's size can hold the vehicle.
+     * Queries skip criteria the vehicle does not fit.
+     */
+    public boolean fits(Vehicle vehicle) {
+        return (vehicle.getSpotSizeMask() & size.mask()) != 0;
+    }
+    
+    /**
+     * Packed identity of this criterion; equal criteria have equal keys.
+     */
+    long key() {
+        return ((long) size.ordinal() << 40) | ((long) requiredCapabilities << 20) | excludedCapabilities;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SpotCriterion && ((SpotCriterion) o).key() == key();
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(key());
+    }
+    
+    @Override
+    public String toString() {
+        return size + "+" + Integer.toBinaryString(requiredCapabilities) + "-" + Integer.toBinaryString(excludedCapabilities);
+    }
+}
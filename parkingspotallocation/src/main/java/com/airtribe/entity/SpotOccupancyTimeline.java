@@ -0,0 +1,307 @@
+package com.airtribe.entity;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Fixed-memory occupancy history for the spots of one floor.
+ * Each spot keeps a ring of daily bitmaps, one bit per minute of the day
+ * (23 longs per spot and day), so memory is fixed at creation:
+ * spots x retainedDays x 184 bytes. A minute is set if the spot was occupied
+ * at any point during it. Days are local to a fixed UTC offset.
+ *
+ * Spots record their own transitions while holding their monitor, so each spot's
+ * bitmaps have a single writer at a time and need no locking. Queries read without
+ * locking and may miss transitions that are in flight; intervals still open are
+ * counted up to the current minute.
+ */
+public final class SpotOccupancyTimeline {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) >>> 6;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long NOT_OCCUPIED = -1;
+    private static final int[] HOUR_FIRST_WORD = new int[24];
+    private static final long[] HOUR_LOW_MASK = new long[24];
+    private static final long[] HOUR_HIGH_MASK = new long[24];
+    
+    static {
+        for (int hour = 0; hour < 24; hour++) {
+            int word = hour * 60 >>> 6;
+            HOUR_FIRST_WORD[hour] = word;
+            HOUR_LOW_MASK[hour] = rangeMask(hour * 60, hour * 60 + 60, word);
+            HOUR_HIGH_MASK[hour] = rangeMask(hour * 60, hour * 60 + 60, word + 1);
+        }
+    }
+    
+    private final int spotCount;
+    private final int retainedDays;
+    private final ZoneOffset offset;
+    private final long offsetMillis;
+    private final long[] minuteBits;   // ((spot * retainedDays) + day slot) * WORDS_PER_DAY
+    private final int[] slotDays;      // epoch day held by each spot's day slot, plus one; 0 if unused
+    private final long[] occupiedSince; // local epoch minute the current stay began, or NOT_OCCUPIED
+    
+    SpotOccupancyTimeline(int spotCount, int retainedDays, ZoneOffset offset) {
+        if (retainedDays < 1) {
+            throw new IllegalArgumentException("Timeline must retain at least one day: " + retainedDays);
+        }
+        // Sized in long: spots x days x words overflows int long before memory runs out
+        long daySlots = (long) spotCount * retainedDays;
+        if (daySlots > Integer.MAX_VALUE / WORDS_PER_DAY) {
+            throw new IllegalArgumentException("Timeline too large: " + spotCount + " spots x " + retainedDays
+                    + " days exceeds " + Integer.MAX_VALUE / WORDS_PER_DAY + " spot-days");
+        }
+        this.spotCount = spotCount;
+        this.retainedDays = retainedDays;
+        this.offset = offset;
+        this.offsetMillis = offset.getTotalSeconds() * 1000L;
+        this.minuteBits = new long[(int) daySlots * WORDS_PER_DAY];
+        this.slotDays = new int[(int) daySlots];
+        this.occupiedSince = new long[spotCount];
+        Arrays.fill(occupiedSince, NOT_OCCUPIED);
+    }
+    
+    /**
+     * Starts a stay. Called by the spot, under its monitor, when it becomes occupied.
+     */
+    void opened(int spotIndex, long epochMillis) {
+        if (spotIndex < spotCount && occupiedSince[spotIndex] == NOT_OCCUPIED) {
+            occupiedSince[spotIndex] = localMinute(epochMillis);
+        }
+    }
+    
+    /**
+     * Ends a stay and writes it into the day bitmaps. Called by the spot, under its
+     * monitor, when it becomes available; a no-op if no stay was open.
+     */
+    void closed(int spotIndex, long epochMillis) {
+        if (spotIndex >= spotCount || occupiedSince[spotIndex] == NOT_OCCUPIED) {
+            return;
+        }
+        // Written before the stay is cleared, so a query never sees it in neither place
+        long endMinute = localMinute(epochMillis);
+        mark(spotIndex, occupiedSince[spotIndex], endMinute + 1, endMinute);
+        occupiedSince[spotIndex] = NOT_OCCUPIED;
+    }
+    
+    /**
+     * Records a finished stay, e.g. when backfilling history from settled tickets.
+     * Must not run concurrently with live traffic on the same spot.
+     */
+    public void record(int spotIndex, long fromEpochMillis, long toEpochMillis) {
+        if (spotIndex < 0 || spotIndex >= spotCount) {
+            throw new IllegalArgumentException("No spot " + spotIndex + " in this timeline");
+        }
+        if (toEpochMillis < fromEpochMillis) {
+            throw new IllegalArgumentException("Stay ends before it starts");
+        }
+        mark(spotIndex, localMinute(fromEpochMillis), localMinute(toEpochMillis) + 1, currentMinute());
+    }
+    
+    /**
+     * Sets the minutes [fromMinute, toMinute) that fall within the days retained as of nowMinute.
+     */
+    private void mark(int spotIndex, long fromMinute, long toMinute, long nowMinute) {
+        long lastDay = Math.floorDiv(toMinute - 1, MINUTES_PER_DAY);
+        long firstDay = Math.max(Math.floorDiv(fromMinute, MINUTES_PER_DAY), oldestRetainedDay(nowMinute));
+        for (long day = firstDay; day <= lastDay; day++) {
+            int base = writableDay(spotIndex, day);
+            long dayStart = day * MINUTES_PER_DAY;
+            int from = (int) (Math.max(fromMinute, dayStart) - dayStart);
+            int to = (int) (Math.min(toMinute, dayStart + MINUTES_PER_DAY) - dayStart);
+            for (int word = from >>> 6; word <= (to - 1) >>> 6; word++) {
+                minuteBits[base + word] |= rangeMask(from, to, word);
+            }
+        }
+    }
+    
+    /**
+     * Returns the bitmap offset of the spot's slot for the given day, clearing the
+     * slot first if it still holds an older day.
+     */
+    private int writableDay(int spotIndex, long epochDay) {
+        int slot = spotIndex * retainedDays + Math.floorMod(epochDay, retainedDays);
+        int base = slot * WORDS_PER_DAY;
+        if (slotDays[slot] != epochDay + 1) {
+            Arrays.fill(minuteBits, base, base + WORDS_PER_DAY, 0L);
+            slotDays[slot] = (int) epochDay + 1;
+        }
+        return base;
+    }
+    
+    /**
+     * Minutes the spot was occupied on the given day, 0 to 1440.
+     */
+    public int occupiedMinutes(int spotIndex, LocalDate day) {
+        long epochDay = day.toEpochDay();
+        long[] words = new long[WORDS_PER_DAY];
+        return loadDay(spotIndex, epochDay, daySlot(epochDay), currentMinute(), words) ? countBits(words) : 0;
+    }
+    
+    /**
+     * Minutes each spot was occupied over the given days (inclusive), indexed by
+     * position on the floor. Days outside the retained window count as idle.
+     */
+    public int[] occupiedMinutes(LocalDate from, LocalDate to) {
+        long now = currentMinute();
+        long firstDay = Math.max(from.toEpochDay(), oldestRetainedDay(now));
+        long lastDay = to.toEpochDay();
+        long[] words = new long[WORDS_PER_DAY];
+        int[] minutes = new int[spotCount];
+        // Spot by spot, so each spot's retained days are read as one contiguous block
+        for (int spot = 0; spot < spotCount; spot++) {
+            boolean open = occupiedSince[spot] != NOT_OCCUPIED;
+            int total = 0;
+            for (long day = firstDay; day <= lastDay; day++) {
+                int slot = spot * retainedDays + daySlot(day);
+                if (open) {
+                    if (loadDay(spot, day, daySlot(day), now, words)) {
+                        total += countBits(words);
+                    }
+                } else if (slotDays[slot] == day + 1) {
+                    for (int word = slot * WORDS_PER_DAY, end = word + WORDS_PER_DAY; word < end; word++) {
+                        total += Long.bitCount(minuteBits[word]);
+                    }
+                }
+            }
+            minutes[spot] = total;
+        }
+        return minutes;
+    }
+    
+    /**
+     * Per-spot heatmap of one day: entry [spot * 24 + hour] holds the minutes
+     * (0 to 60) that spot was occupied during that hour.
+     */
+    public byte[] hourlyHeatmap(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        int daySlot = daySlot(epochDay);
+        long now = currentMinute();
+        long[] words = new long[WORDS_PER_DAY];
+        byte[] heatmap = new byte[spotCount * 24];
+        for (int spot = 0; spot < spotCount; spot++) {
+            if (loadDay(spot, epochDay, daySlot, now, words)) {
+                for (int hour = 0; hour < 24; hour++) {
+                    heatmap[spot * 24 + hour] = (byte) hourMinutes(words, hour);
+                }
+            }
+        }
+        return heatmap;
+    }
+    
+    /**
+     * Occupied spot-minutes per hour of the given day, summed over the floor.
+     */
+    public long[] occupiedMinutesByHour(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        int daySlot = daySlot(epochDay);
+        long now = currentMinute();
+        long[] words = new long[WORDS_PER_DAY];
+        long[] byHour = new long[24];
+        for (int spot = 0; spot < spotCount; spot++) {
+            if (loadDay(spot, epochDay, daySlot, now, words)) {
+                for (int hour = 0; hour < 24; hour++) {
+                    byHour[hour] += hourMinutes(words, hour);
+                }
+            }
+        }
+        return byHour;
+    }
+    
+    /**
+     * Copies the spot's bitmap for the day into words, adding its open stay up to
+     * and including the current minute. Returns false, leaving words untouched,
+     * if the spot has no occupancy on that day or the day is no longer retained.
+     */
+    private boolean loadDay(int spotIndex, long epochDay, int daySlot, long nowMinute, long[] words) {
+        if (epochDay < oldestRetainedDay(nowMinute)) {
+            return false;
+        }
+        int slot = spotIndex * retainedDays + daySlot;
+        boolean recorded = slotDays[slot] == epochDay + 1;
+        long since = occupiedSince[spotIndex];
+        int openFrom = 0;
+        int openTo = 0;
+        if (since != NOT_OCCUPIED) {
+            long dayStart = epochDay * MINUTES_PER_DAY;
+            openFrom = (int) Math.max(0, Math.min(MINUTES_PER_DAY, since - dayStart));
+            openTo = (int) Math.max(0, Math.min(MINUTES_PER_DAY, nowMinute + 1 - dayStart));
+        }
+        if (!recorded && openFrom >= openTo) {
+            return false;
+        }
+        if (recorded) {
+            System.arraycopy(minuteBits, slot * WORDS_PER_DAY, words, 0, WORDS_PER_DAY);
+        } else {
+            Arrays.fill(words, 0L);
+        }
+        for (int word = openFrom >>> 6; openFrom < openTo && word <= (openTo - 1) >>> 6; word++) {
+            words[word] |= rangeMask(openFrom, openTo, word);
+        }
+        return true;
+    }
+    
+    private long oldestRetainedDay(long nowMinute) {
+        return Math.floorDiv(nowMinute, MINUTES_PER_DAY) - retainedDays + 1;
+    }
+    
+    private int daySlot(long epochDay) {
+        return Math.floorMod(epochDay, retainedDays);
+    }
+    
+    private static int countBits(long[] words) {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    /**
+     * An hour spans at most two words of a day bitmap.
+     */
+    private static int hourMinutes(long[] words, int hour) {
+        int word = HOUR_FIRST_WORD[hour];
+        return Long.bitCount(words[word] & HOUR_LOW_MASK[hour]) + Long.bitCount(words[word + 1] & HOUR_HIGH_MASK[hour]);
+    }
+    
+    /**
+     * Bits of the given word that fall within minutes [from, to) of the day.
+     */
+    private static long rangeMask(int from, int to, int word) {
+        int low = Math.max(from - (word << 6), 0);
+        int high = Math.min(to - (word << 6), 64);
+        if (high <= low) {
+            return 0L;
+        }
+        return (high == 64 ? -1L : (1L << high) - 1) & (-1L << low);
+    }
+    
+    private long localMinute(long epochMillis) {
+        return Math.floorDiv(epochMillis + offsetMillis, MILLIS_PER_MINUTE);
+    }
+    
+    private long currentMinute() {
+        return localMinute(System.currentTimeMillis());
+    }
+    
+    /**
+     * Today's date in the timeline's offset.
+     */
+    public LocalDate today() {
+        return LocalDate.ofEpochDay(Math.floorDiv(currentMinute(), MINUTES_PER_DAY));
+    }
+    
+    public int getSpotCount() {
+        return spotCount;
+    }
+    
+    public int getRetainedDays() {
+        return retainedDays;
+    }
+    
+    public ZoneOffset getOffset() {
+        return offset;
+    }
+}
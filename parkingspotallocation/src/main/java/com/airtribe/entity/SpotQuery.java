@@ -0,0 +1,58 @@
+package com.airtribe.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-criteria spot allocation query, e.g.
+ * "MEDIUM spot with charger, else MEDIUM, else LARGE".
+ * Criteria are tried in order; the first one that matches an available spot wins.
+ * Criteria whose size the vehicle does not fit are skipped.
+ * Immutable and safe to share between threads.
+ */
+public final class SpotQuery {
+    private final SpotCriterion[] criteria;
+    
+    private SpotQuery(SpotCriterion[] criteria) {
+        this.criteria = criteria;
+    }
+    
+    public static SpotQuery of(SpotCriterion... criteria) {
+        if (criteria.length == 0) {
+            throw new IllegalArgumentException("A spot query needs at least one criterion");
+        }
+        return new SpotQuery(criteria.clone());
+    }
+    
+    /**
+     * Default query for a vehicle class: its preferred capabilities at its required
+     * size first (if it has any), then every size it fits, smallest first.
+     * Permit-reserved spots are never offered by the default query.
+     */
+    static SpotQuery forVehicleClass(VehicleClass vehicleClass) {
+        List<SpotCriterion> criteria = new ArrayList<>();
+        int excluded = SpotCapability.PERMIT_RESERVED.mask();
+        int preferred = vehicleClass.getPreferredCapabilities() & ~excluded;
+        if (preferred != 0) {
+            criteria.add(SpotCriterion.of(vehicleClass.getRequiredSpotSize(), preferred, excluded));
+        }
+        for (SpotSize size : SpotSize.values()) {
+            if ((vehicleClass.getSpotSizeMask() & size.mask()) != 0) {
+                criteria.add(SpotCriterion.of(size, 0, excluded));
+            }
+        }
+        return new SpotQuery(criteria.toArray(new SpotCriterion[0]));
+    }
+    
+    public static SpotQuery forVehicle(Vehicle vehicle) {
+        return vehicle.getVehicleClass().getDefaultSpotQuery();
+    }
+    
+    public int getCriterionCount() {
+        return criteria.length;
+    }
+    
+    public SpotCriterion getCriterion(int i) {
+        return criteria[i];
+    }
+}
@@ -2,9 +2,26 @@ package com.airtribe.entity;
 
 /**
  * Enum representing different sizes of parking spots.
+ * Sizes are ordered from smallest to largest.
  */
 public enum SpotSize {
     SMALL,   // For motorcycles
     MEDIUM,  // For cars
-    LARGE    // For buses
+    LARGE;   // For buses
+    
+    private static final int ALL_SIZES_MASK = (1 << values().length) - 1;
+    
+    /**
+     * Single bit identifying this size in spot-size masks.
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+    
+    /**
+     * Mask of every size that can hold a vehicle needing the given size.
+     */
+    public static int fitMask(SpotSize requiredSize) {
+        return ALL_SIZES_MASK & ~(requiredSize.mask() - 1);
+    }
 }
@@ -1,34 +1,81 @@
 package com.airtribe.entity;
 
 /**
- * Abstract base class representing a vehicle.
- * Follows the Open/Closed Principle - open for extension, closed for modification.
+ * Value-style descriptor of a vehicle.
+ * Stores the license plate packed into a long where possible and the ID of its
+ * registered VehicleClass, together with that class's precomputed spot-size mask.
+ * New kinds of vehicle are added through VehicleRegistry rather than by subclassing.
  */
-public abstract class Vehicle {
-    private String licensePlate;
-    private VehicleType type;
+public class Vehicle {
+    private final long packedPlate;
+    private final String unpackedPlate; // only set when the plate cannot be packed
+    private final int classId;
+    private final int spotSizeMask;
     
     public Vehicle(String licensePlate, VehicleType type) {
-        this.licensePlate = licensePlate;
-        this.type = type;
+        this(licensePlate, VehicleRegistry.forType(type));
     }
     
-    public String getLicensePlate() {
-        return licensePlate;
+    /**
+     * Creates a vehicle of the given class. The plate must not be null; plates that
+     * cannot be packed, including the empty plate, are kept as given.
+     */
+    public Vehicle(String licensePlate, VehicleClass vehicleClass) {
+        if (licensePlate == null) {
+            throw new IllegalArgumentException("License plate must not be null");
+        }
+        this.packedPlate = PlateCodec.encode(licensePlate);
+        this.unpackedPlate = packedPlate == PlateCodec.NOT_PACKABLE ? licensePlate : null;
+        this.classId = vehicleClass.getId();
+        this.spotSizeMask = vehicleClass.getSpotSizeMask();
+    }
+    
+    public static Vehicle of(String licensePlate, VehicleClass vehicleClass) {
+        return new Vehicle(licensePlate, vehicleClass);
     }
     
-    public VehicleType getType() {
-        return type;
+    public final String getLicensePlate() {
+        return packedPlate == PlateCodec.NOT_PACKABLE ? unpackedPlate : PlateCodec.decode(packedPlate);
+    }
+    
+    /**
+     * Packed plate, or PlateCodec.NOT_PACKABLE if the plate is kept as a String.
+     */
+    public final long getPackedPlate() {
+        return packedPlate;
+    }
+    
+    public final int getClassId() {
+        return classId;
+    }
+    
+    public final VehicleClass getVehicleClass() {
+        return VehicleRegistry.byId(classId);
+    }
+    
+    /**
+     * Returns the built-in type this vehicle is charged as.
+     */
+    public final VehicleType getType() {
+        return getVehicleClass().getTariffType();
     }
     
     /**
      * Returns the required spot size for this vehicle.
-     * This is implemented by subclasses to define their specific requirements.
      */
-    public abstract SpotSize getRequiredSpotSize();
+    public final SpotSize getRequiredSpotSize() {
+        return getVehicleClass().getRequiredSpotSize();
+    }
+    
+    /**
+     * Bitmask of SpotSize.mask() values this vehicle fits into.
+     */
+    public final int getSpotSizeMask() {
+        return spotSizeMask;
+    }
     
     @Override
     public String toString() {
-        return type + " [" + licensePlate + "]";
+        return getVehicleClass().getName() + " [" + getLicensePlate() + "]";
     }
 }
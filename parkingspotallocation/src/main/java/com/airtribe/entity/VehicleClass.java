@@ -0,0 +1,72 @@
+package com.airtribe.entity;
+
+/**
+ * A registered class of vehicle (motorcycle, car, EV, van, ...).
+ * Holds the precomputed mask of spot sizes the class fits into, so spot
+ * compatibility is a single bitmask test instead of a per-vehicle virtual call.
+ * Instances are created through VehicleRegistry.
+ */
+public final class VehicleClass {
+    private final int id;
+    private final String name;
+    private final SpotSize requiredSpotSize;
+    private final VehicleType tariffType;
+    private final int spotSizeMask;
+    private final int preferredCapabilities;
+    private final SpotQuery defaultSpotQuery;
+    
+    VehicleClass(int id, String name, SpotSize requiredSpotSize, VehicleType tariffType, int preferredCapabilities) {
+        this.id = id;
+        this.name = name;
+        this.requiredSpotSize = requiredSpotSize;
+        this.tariffType = tariffType;
+        this.spotSizeMask = SpotSize.fitMask(requiredSpotSize);
+        this.preferredCapabilities = preferredCapabilities;
+        this.defaultSpotQuery = SpotQuery.forVehicleClass(this);
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public SpotSize getRequiredSpotSize() {
+        return requiredSpotSize;
+    }
+    
+    /**
+     * The built-in vehicle type whose tariff this class is charged at.
+     */
+    public VehicleType getTariffType() {
+        return tariffType;
+    }
+    
+    /**
+     * Bitmask of SpotSize.mask() values this class fits into.
+     */
+    public int getSpotSizeMask() {
+        return spotSizeMask;
+    }
+    
+    /**
+     * Mask of SpotCapability bits this class would like, e.g. CHARGER for EVs.
+     */
+    public int getPreferredCapabilities() {
+        return preferredCapabilities;
+    }
+    
+    /**
+     * Precomputed allocation query used for vehicles of this class.
+     */
+    public SpotQuery getDefaultSpotQuery() {
+        return defaultSpotQuery;
+    }
+    
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,70 @@
+package com.airtribe.entity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of vehicle classes.
+ * New kinds of vehicle (EV, van, ...) are added here instead of by subclassing Vehicle.
+ * The built-in classes use the ordinal of their VehicleType as ID.
+ * Lookups by ID are lock-free; registration is rare and copy-on-write.
+ */
+public final class VehicleRegistry {
+    private static final Map<String, VehicleClass> byName = new ConcurrentHashMap<>();
+    private static volatile VehicleClass[] byId = new VehicleClass[0];
+    
+    public static final VehicleClass MOTORCYCLE = register(VehicleType.MOTORCYCLE.name(), SpotSize.SMALL, VehicleType.MOTORCYCLE);
+    public static final VehicleClass CAR = register(VehicleType.CAR.name(), SpotSize.MEDIUM, VehicleType.CAR);
+    public static final VehicleClass BUS = register(VehicleType.BUS.name(), SpotSize.LARGE, VehicleType.BUS);
+    
+    private VehicleRegistry() {
+    }
+    
+    /**
+     * Registers a new vehicle class.
+     * 
+     * @param name Unique class name, e.g. "EV"
+     * @param requiredSpotSize Smallest spot size the class fits into
+     * @param tariffType Built-in type whose tariff applies to the class
+     * @param preferredCapabilities Spot capabilities tried first when allocating, e.g. CHARGER
+     * @return The registered class
+     */
+    public static synchronized VehicleClass register(String name, SpotSize requiredSpotSize, VehicleType tariffType,
+                                                     SpotCapability... preferredCapabilities) {
+        if (byName.containsKey(name)) {
+            throw new IllegalArgumentException("Vehicle class already registered: " + name);
+        }
+        VehicleClass[] current = byId;
+        VehicleClass vehicleClass = new VehicleClass(current.length, name, requiredSpotSize, tariffType,
+                SpotCapability.maskOf(preferredCapabilities));
+        VehicleClass[] next = Arrays.copyOf(current, current.length + 1);
+        next[vehicleClass.getId()] = vehicleClass;
+        byName.put(name, vehicleClass);
+        byId = next;
+        return vehicleClass;
+    }
+    
+    public static VehicleClass byId(int id) {
+        VehicleClass[] current = byId;
+        if (id < 0 || id >= current.length) {
+            throw new IllegalArgumentException("Unknown vehicle class ID: " + id);
+        }
+        return current[id];
+    }
+    
+    /**
+     * Looks up a class by name, or returns null if none is registered.
+     */
+    public static VehicleClass byName(String name) {
+        return byName.get(name);
+    }
+    
+    public static VehicleClass forType(VehicleType type) {
+        return byId(type.ordinal());
+    }
+    
+    public static int size() {
+        return byId.length;
+    }
+}
@@ -0,0 +1,443 @@
+package com.airtribe.layout;
+
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.SpotCapability;
+import com.airtribe.entity.SpotSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Loads parking lot layouts from CSV or from a compact binary image.
+ * 
+ * CSV rows are {@code floor,spotId,size[,capabilities]}, where size is SMALL,
+ * MEDIUM or LARGE and capabilities are SpotCapability names separated by '|'.
+ * Blank lines, lines starting with '#' and a leading "floor,..." header are skipped.
+ * Malformed rows, unknown sizes or capabilities and repeated spot IDs fail the load
+ * with an IllegalArgumentException naming the offending line.
+ * 
+ * Files are memory-mapped. A CSV is scanned once to group rows by floor, then
+ * every floor is parsed in parallel. After parsing, a binary image is cached next
+ * to the CSV (same name plus ".img"); warm starts load the image instead of
+ * parsing, as long as the CSV's size and modification time are unchanged.
+ * Image layout:
+ * <pre>
+ * header:    magic int, version int, source size long, source mtime long,
+ *            first floor int, floor count int
+ * directory: per floor: spot count int, section offset long, section length long
+ * sections:  per spot: size byte, capability mask byte, id length short, id bytes (UTF-8)
+ * </pre>
+ */
+public final class LayoutLoader {
+    public static final String IMAGE_SUFFIX = ".img";
+    
+    private static final int IMAGE_MAGIC = 0x504B4C59; // "PKLY"
+    private static final int IMAGE_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4 + 4;
+    private static final int DIRECTORY_ENTRY_BYTES = 4 + 8 + 8;
+    private static final SpotSize[] SIZES = SpotSize.values();
+    
+    private LayoutLoader() {
+    }
+    
+    /**
+     * Loads a layout from a CSV file or binary image.
+     * For a CSV, a valid cached image is used when present, and written otherwise.
+     */
+    public static ParkingLayout load(Path path) throws IOException {
+        if (isImage(path)) {
+            return readImage(path, false, 0, 0);
+        }
+        long sourceSize = Files.size(path);
+        long sourceModified = Files.getLastModifiedTime(path).toMillis();
+        Path image = imagePathFor(path);
+        if (Files.exists(image)) {
+            ParkingLayout cached = readImage(image, true, sourceSize, sourceModified);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        ParkingLayout layout = parseCsv(path);
+        try {
+            writeImage(layout, image, sourceSize, sourceModified);
+        } catch (IOException e) {
+            // The cache only speeds up the next start; a read-only directory must not fail the load
+            System.out.println("Could not cache layout image " + image + ": " + e.getMessage());
+        }
+        return layout;
+    }
+    
+    public static Path imagePathFor(Path csv) {
+        return csv.resolveSibling(csv.getFileName() + IMAGE_SUFFIX);
+    }
+    
+    private static boolean isImage(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            return channel.read(magic, 0) == 4 && magic.getInt(0) == IMAGE_MAGIC;
+        }
+    }
+    
+    /**
+     * Parses a CSV layout: one sequential pass groups rows by floor, then floors are parsed in parallel.
+     */
+    public static ParkingLayout parseCsv(Path path) throws IOException {
+        MappedByteBuffer buffer = map(path);
+        int limit = buffer.limit();
+        
+        // Pass 1: row start offsets grouped by floor number
+        TreeMap<Integer, RowOffsets> rowsByFloor = new TreeMap<>();
+        boolean firstRow = true;
+        int position = 0;
+        while (position < limit) {
+            int lineEnd = lineEnd(buffer, position, limit);
+            byte first = buffer.get(position);
+            boolean skip = lineEnd == position || first == '#' || first == '\r'
+                    || (firstRow && (first == 'f' || first == 'F'));
+            if (!skip) {
+                int floorNumber = parseFloor(buffer, position, lineEnd, path);
+                rowsByFloor.computeIfAbsent(floorNumber, n -> new RowOffsets()).add(position);
+            }
+            if (first != '#' && lineEnd > position) {
+                firstRow = false;
+            }
+            position = lineEnd + 1;
+        }
+        if (rowsByFloor.isEmpty()) {
+            return new ParkingLayout(1, new ArrayList<>());
+        }
+        
+        // Pass 2: parse each floor's rows in parallel
+        int firstFloor = rowsByFloor.firstKey();
+        int lastFloor = rowsByFloor.lastKey();
+        List<List<ParkingSpot>> floors = new ArrayList<>();
+        for (int floor = firstFloor; floor <= lastFloor; floor++) {
+            floors.add(null);
+        }
+        IntStream.rangeClosed(firstFloor, lastFloor).parallel().forEach(floor -> {
+            RowOffsets rows = rowsByFloor.get(floor);
+            floors.set(floor - firstFloor, rows == null ? new ArrayList<>() : parseRows(buffer, rows, floor, path));
+        });
+        
+        checkUniqueSpotIds(floors, firstFloor, rowsByFloor, buffer, path);
+        return new ParkingLayout(firstFloor, floors);
+    }
+    
+    /**
+     * Rejects a spot ID that appears twice anywhere in the layout, since IDs identify spots
+     * across the whole lot. Uses an open-addressing table of ID hash and row number instead of a
+     * HashSet, so the check allocates no entry per spot; IDs are only compared when hashes match.
+     */
+    private static void checkUniqueSpotIds(List<List<ParkingSpot>> floors, int firstFloor,
+                                           TreeMap<Integer, RowOffsets> rowsByFloor,
+                                           MappedByteBuffer buffer, Path path) {
+        int[] firstRow = new int[floors.size() + 1]; // running row number of each floor's first row
+        for (int offset = 0; offset < floors.size(); offset++) {
+            firstRow[offset + 1] = firstRow[offset] + floors.get(offset).size();
+        }
+        int spotCount = firstRow[floors.size()];
+        long[] table = new long[Integer.highestOneBit(Math.max(1, spotCount)) << 2]; // hash << 32 | row + 1, 0 if empty
+        int mask = table.length - 1;
+        int shift = Integer.numberOfLeadingZeros(mask);
+        for (int offset = 0; offset < floors.size(); offset++) {
+            List<ParkingSpot> spots = floors.get(offset);
+            for (int r = 0; r < spots.size(); r++) {
+                int idHash = spots.get(r).getSpotId().hashCode();
+                long hash = (long) idHash << 32;
+                int slot = (idHash * 0x9E3779B9) >>> shift; // Fibonacci hashing: take the high bits
+                for (long seen = table[slot]; seen != 0; seen = table[slot]) {
+                    if ((seen & 0xFFFFFFFF00000000L) == hash) {
+                        int row = (int) seen - 1;
+                        int seenOffset = offset;
+                        while (firstRow[seenOffset] > row) {
+                            seenOffset--;
+                        }
+                        String id = spots.get(r).getSpotId();
+                        // The earlier row sits on this floor or a lower one
+                        if (floors.get(seenOffset).get(row - firstRow[seenOffset]).getSpotId().equals(id)) {
+                            throw new IllegalArgumentException("Duplicate spot ID " + id + " at " + path + ":"
+                                    + lineOf(buffer, rowsByFloor.get(firstFloor + offset).offsets[r]));
+                        }
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = hash | (firstRow[offset] + r + 1);
+            }
+        }
+    }
+    
+    private static List<ParkingSpot> parseRows(MappedByteBuffer buffer, RowOffsets rows, int floorNumber, Path path) {
+        List<ParkingSpot> spots = new ArrayList<>(rows.size);
+        byte[] scratch = new byte[64];
+        int limit = buffer.limit();
+        for (int r = 0; r < rows.size; r++) {
+            int start = rows.offsets[r];
+            int end = lineEnd(buffer, start, limit);
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            int idStart = indexOf(buffer, (byte) ',', start, end) + 1;
+            int idEnd = indexOf(buffer, (byte) ',', idStart, end);
+            if (idStart <= 0 || idEnd < 0 || idEnd == idStart) {
+                throw malformed(path, buffer, start);
+            }
+            int sizeEnd = indexOf(buffer, (byte) ',', idEnd + 1, end);
+            SpotSize size = parseSize(buffer, idEnd + 1, sizeEnd < 0 ? end : sizeEnd);
+            if (size == null) {
+                throw malformed(path, buffer, start);
+            }
+            int capabilities = sizeEnd < 0 ? 0 : parseCapabilities(buffer, sizeEnd + 1, end, path, start);
+            
+            int idLength = idEnd - idStart;
+            if (scratch.length < idLength) {
+                scratch = new byte[idLength * 2];
+            }
+            buffer.get(idStart, scratch, 0, idLength);
+            spots.add(new ParkingSpot(new String(scratch, 0, idLength, StandardCharsets.UTF_8), size, floorNumber, capabilities));
+        }
+        return spots;
+    }
+    
+    private static int parseFloor(MappedByteBuffer buffer, int start, int end, Path path) {
+        int value = 0;
+        int position = start;
+        while (position < end && buffer.get(position) != ',') {
+            byte digit = buffer.get(position);
+            if (digit < '0' || digit > '9' || value > Integer.MAX_VALUE / 10) {
+                throw malformed(path, buffer, start);
+            }
+            value = value * 10 + (digit - '0');
+            position++;
+        }
+        if (position == start || position == end || value < 1) {
+            throw malformed(path, buffer, start);
+        }
+        return value;
+    }
+    
+    private static SpotSize parseSize(MappedByteBuffer buffer, int start, int end) {
+        for (SpotSize size : SIZES) {
+            if (matches(buffer, start, end, size.name())) {
+                return size;
+            }
+        }
+        return null;
+    }
+    
+    private static int parseCapabilities(MappedByteBuffer buffer, int start, int end, Path path, int rowStart) {
+        int mask = 0;
+        int tokenStart = start;
+        while (tokenStart < end) {
+            int tokenEnd = indexOf(buffer, (byte) '|', tokenStart, end);
+            if (tokenEnd < 0) {
+                tokenEnd = end;
+            }
+            SpotCapability match = null;
+            for (SpotCapability capability : SpotCapability.values()) {
+                if (matches(buffer, tokenStart, tokenEnd, capability.name())) {
+                    match = capability;
+                    break;
+                }
+            }
+            if (match == null) {
+                throw malformed(path, buffer, rowStart);
+            }
+            mask |= match.mask();
+            tokenStart = tokenEnd + 1;
+        }
+        return mask;
+    }
+    
+    private static boolean matches(MappedByteBuffer buffer, int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (buffer.get(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int lineEnd(MappedByteBuffer buffer, int start, int limit) {
+        int end = indexOf(buffer, (byte) '\n', start, limit);
+        return end < 0 ? limit : end;
+    }
+    
+    private static int indexOf(MappedByteBuffer buffer, byte value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static IllegalArgumentException malformed(Path path, MappedByteBuffer buffer, int rowStart) {
+        return new IllegalArgumentException("Malformed layout row at " + path + ":" + lineOf(buffer, rowStart));
+    }
+    
+    private static int lineOf(MappedByteBuffer buffer, int rowStart) {
+        int line = 1;
+        for (int i = 0; i < rowStart; i++) {
+            if (buffer.get(i) == '\n') {
+                line++;
+            }
+        }
+        return line;
+    }
+    
+    /**
+     * Writes a layout as a binary image, replacing any existing image atomically.
+     * Floors are encoded in parallel.
+     */
+    public static void writeImage(ParkingLayout layout, Path image, long sourceSize, long sourceModified) throws IOException {
+        int floorCount = layout.getFloorCount();
+        ByteBuffer[] sections = new ByteBuffer[floorCount];
+        IntStream.range(0, floorCount).parallel().forEach(offset -> sections[offset] = encodeFloor(layout.spotsAt(offset)));
+        
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + floorCount * DIRECTORY_ENTRY_BYTES);
+        header.putInt(IMAGE_MAGIC).putInt(IMAGE_VERSION).putLong(sourceSize).putLong(sourceModified)
+                .putInt(layout.getFirstFloorNumber()).putInt(floorCount);
+        long sectionOffset = header.capacity();
+        for (int offset = 0; offset < floorCount; offset++) {
+            header.putInt(layout.spotsAt(offset).size()).putLong(sectionOffset).putLong(sections[offset].remaining());
+            sectionOffset += sections[offset].remaining();
+        }
+        header.flip();
+        
+        Path temporary = image.resolveSibling(image.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            for (ByteBuffer section : sections) {
+                writeFully(channel, section);
+            }
+        }
+        try {
+            Files.move(temporary, image, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, image, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    private static ByteBuffer encodeFloor(List<ParkingSpot> spots) {
+        byte[][] ids = new byte[spots.size()][];
+        int bytes = 0;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = spots.get(i).getSpotId().getBytes(StandardCharsets.UTF_8);
+            if (ids[i].length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Spot ID too long: " + spots.get(i).getSpotId());
+            }
+            bytes += 4 + ids[i].length;
+        }
+        ByteBuffer section = ByteBuffer.allocate(bytes);
+        for (int i = 0; i < ids.length; i++) {
+            ParkingSpot spot = spots.get(i);
+            section.put((byte) spot.getSize().ordinal())
+                    .put((byte) spot.getCapabilityMask())
+                    .putShort((short) ids[i].length)
+                    .put(ids[i]);
+        }
+        return section.flip();
+    }
+    
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+    
+    /**
+     * Reads a binary image written by writeImage.
+     */
+    public static ParkingLayout readImage(Path image) throws IOException {
+        return readImage(image, false, 0, 0);
+    }
+    
+    /**
+     * Reads a binary image, decoding floors in parallel.
+     * When validating, returns null if the image is stale or not an image of the given source.
+     */
+    private static ParkingLayout readImage(Path image, boolean validate, long sourceSize, long sourceModified)
+            throws IOException {
+        MappedByteBuffer buffer = map(image);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != IMAGE_MAGIC || buffer.getInt(4) != IMAGE_VERSION) {
+            if (validate) {
+                return null;
+            }
+            throw new IOException("Not a layout image: " + image);
+        }
+        if (validate && (buffer.getLong(8) != sourceSize || buffer.getLong(16) != sourceModified)) {
+            return null;
+        }
+        int firstFloor = buffer.getInt(24);
+        int floorCount = buffer.getInt(28);
+        
+        ParkingSpot[][] floors = new ParkingSpot[floorCount][];
+        IntStream.range(0, floorCount).parallel().forEach(offset -> {
+            int entry = HEADER_BYTES + offset * DIRECTORY_ENTRY_BYTES;
+            floors[offset] = decodeFloor(buffer, buffer.getInt(entry), (int) buffer.getLong(entry + 4), firstFloor + offset);
+        });
+        List<List<ParkingSpot>> floorLists = new ArrayList<>(floorCount);
+        for (ParkingSpot[] floor : floors) {
+            floorLists.add(new ArrayList<>(Arrays.asList(floor)));
+        }
+        return new ParkingLayout(firstFloor, floorLists);
+    }
+    
+    private static ParkingSpot[] decodeFloor(MappedByteBuffer buffer, int spotCount, int position, int floorNumber) {
+        ParkingSpot[] spots = new ParkingSpot[spotCount];
+        byte[] scratch = new byte[64];
+        for (int i = 0; i < spotCount; i++) {
+            SpotSize size = SIZES[buffer.get(position)];
+            int capabilities = buffer.get(position + 1) & 0xFF;
+            int idLength = buffer.getShort(position + 2);
+            if (scratch.length < idLength) {
+                scratch = new byte[idLength * 2];
+            }
+            buffer.get(position + 4, scratch, 0, idLength);
+            spots[i] = new ParkingSpot(new String(scratch, 0, idLength, StandardCharsets.UTF_8), size, floorNumber, capabilities);
+            position += 4 + idLength;
+        }
+        return spots;
+    }
+    
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Layout file too large: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+    
+    /**
+     * Growable list of row offsets for one floor.
+     */
+    private static final class RowOffsets {
+        int[] offsets = new int[1024];
+        int size;
+        
+        void add(int offset) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            offsets[size++] = offset;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.airtribe.layout;
+
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.service.ParkingLot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Spots of a parking lot grouped by floor, as read from a layout file.
+ * Floors are numbered contiguously from the first floor; floors without
+ * spots in the file are kept as empty floors.
+ * A layout's spots can be applied to exactly one lot.
+ */
+public final class ParkingLayout {
+    private final int firstFloorNumber;
+    private final List<List<ParkingSpot>> floors;
+    
+    ParkingLayout(int firstFloorNumber, List<List<ParkingSpot>> floors) {
+        this.firstFloorNumber = firstFloorNumber;
+        this.floors = floors;
+    }
+    
+    public int getFirstFloorNumber() {
+        return firstFloorNumber;
+    }
+    
+    public int getFloorCount() {
+        return floors.size();
+    }
+    
+    public long getSpotCount() {
+        return floors.stream().mapToLong(List::size).sum();
+    }
+    
+    public List<ParkingSpot> getSpots(int floorNumber) {
+        return new ArrayList<>(floors.get(floorNumber - firstFloorNumber));
+    }
+    
+    List<ParkingSpot> spotsAt(int floorOffset) {
+        return floors.get(floorOffset);
+    }
+    
+    /**
+     * Creates an independent lot with exactly this layout's floors and spots.
+     */
+    public ParkingLot newParkingLot(String name, String ticketIdPrefix) {
+        ParkingLot lot = ParkingLot.create(name, firstFloorNumber, Math.max(1, floors.size()), ticketIdPrefix);
+        applyTo(lot);
+        return lot;
+    }
+    
+    /**
+     * Adds this layout's spots to an existing lot, building each floor's
+     * spot table and free index in parallel.
+     */
+    public void applyTo(ParkingLot lot) {
+        for (int offset = 0; offset < floors.size(); offset++) {
+            if (!floors.get(offset).isEmpty() && !lot.ownsFloor(firstFloorNumber + offset)) {
+                throw new IllegalArgumentException("Lot " + lot.getName() + " has no floor " + (firstFloorNumber + offset));
+            }
+        }
+        IntStream.range(0, floors.size()).parallel()
+                .filter(offset -> !floors.get(offset).isEmpty())
+                .forEach(offset -> lot.addParkingSpots(firstFloorNumber + offset, floors.get(offset)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.airtribe.replication;
+
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.PlateCodec;
+import com.airtribe.entity.Vehicle;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of the replication stream. Every record starts with a type byte;
+ * all numbers are big-endian.
+ *
+ * PARKED:    type, floor (int), spot index (int), ticket sequence (long), entry millis (long),
+ *            vehicle class ID (int), packed plate (long), quoted rate (double), quoted base fee (double)
+ *            [, plate length (short), UTF-8 plate bytes - only if the plate is not packable]
+ * EXITED:    type, floor (int), spot index (int), ticket sequence (long), exit millis (long)
+ * HEARTBEAT: type, primary clock millis (long)
+ */
+final class DeltaCodec {
+    static final byte PARKED = 1;
+    static final byte EXITED = 2;
+    static final byte HEARTBEAT = 3;
+    
+    static final int PARKED_SIZE = 1 + 4 + 4 + 8 + 8 + 4 + 8 + 8 + 8;
+    static final int EXITED_SIZE = 1 + 4 + 4 + 8 + 8;
+    static final int HEARTBEAT_SIZE = 1 + 8;
+    
+    private DeltaCodec() {
+    }
+    
+    /**
+     * Bytes needed to encode the park of the given ticket.
+     */
+    static int parkedSize(ParkingTicket ticket) {
+        return parkedSize(ticket.getVehicle());
+    }
+    
+    /**
+     * Bytes needed to encode the park of the given vehicle.
+     */
+    static int parkedSize(Vehicle vehicle) {
+        if (vehicle.getPackedPlate() != PlateCodec.NOT_PACKABLE) {
+            return PARKED_SIZE;
+        }
+        return PARKED_SIZE + 2 + vehicle.getLicensePlate().getBytes(StandardCharsets.UTF_8).length;
+    }
+    
+    static void writeParked(ByteBuffer buffer, ParkingTicket ticket) {
+        writeParked(buffer, ticket.getAssignedSpot(), ticket.getSequence(), ticket.getEntryEpochMillis(),
+                ticket.getVehicle(), ticket.getQuotedHourlyRate(), ticket.getQuotedBaseFee());
+    }
+    
+    /**
+     * Encodes a park from primitive ticket fields, e.g. those of a pooled ticket.
+     */
+    static void writeParked(ByteBuffer buffer, ParkingSpot spot, long sequence, long entryEpochMillis,
+                            Vehicle vehicle, double quotedHourlyRate, double quotedBaseFee) {
+        buffer.put(PARKED)
+                .putInt(spot.getFloorNumber())
+                .putInt(spot.getIndexOnFloor())
+                .putLong(sequence)
+                .putLong(entryEpochMillis)
+                .putInt(vehicle.getClassId())
+                .putLong(vehicle.getPackedPlate())
+                .putDouble(quotedHourlyRate)
+                .putDouble(quotedBaseFee);
+        if (vehicle.getPackedPlate() == PlateCodec.NOT_PACKABLE) {
+            byte[] plate = vehicle.getLicensePlate().getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) plate.length).put(plate);
+        }
+    }
+    
+    static void writeExited(ByteBuffer buffer, ParkingTicket ticket, long exitEpochMillis) {
+        writeExited(buffer, ticket.getAssignedSpot(), ticket.getSequence(), exitEpochMillis);
+    }
+    
+    static void writeExited(ByteBuffer buffer, ParkingSpot spot, long sequence, long exitEpochMillis) {
+        buffer.put(EXITED)
+                .putInt(spot.getFloorNumber())
+                .putInt(spot.getIndexOnFloor())
+                .putLong(sequence)
+                .putLong(exitEpochMillis);
+    }
+    
+    static void writeHeartbeat(ByteBuffer buffer, long nowMillis) {
+        buffer.put(HEARTBEAT).putLong(nowMillis);
+    }
+}
@@ -0,0 +1,261 @@
+package com.airtribe.replication;
+
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.Vehicle;
+import com.airtribe.service.LotEventListener;
+import com.airtribe.service.ParkingLot;
+import com.airtribe.service.TicketSlab;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.ZoneId;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Primary side of primary/standby replication.
+ * Observes the lot's ticket transitions and appends each one as a compact binary
+ * delta (see DeltaCodec) to an in-memory buffer; the gate thread does nothing else.
+ * A sender thread swaps the buffer out every flush interval and writes the whole
+ * batch to the standby over a local socket, sending a heartbeat when there was
+ * nothing to ship for a while so the standby can tell a quiet primary from a dead one.
+ *
+ * Replication is asynchronous: a transition acknowledged to a gate may be lost if the
+ * primary dies within one flush interval. Pooled (handle-based) tickets are replicated
+ * too; the standby restores them as regular tickets with the same number, since
+ * handles only mean something in the primary's slab.
+ *
+ * Once replication stops, for whatever reason, the standby promotes itself, so the
+ * primary fences its lot (see ParkingLot.setFenced): parks are refused, exits still work.
+ * There is no promotion epoch, so this only covers a stream the primary knows is broken;
+ * see ReplicationStandby for the window that remains.
+ */
+public class ReplicationPrimary implements LotEventListener, AutoCloseable {
+    public static final long DEFAULT_FLUSH_INTERVAL_MICROS = 200;
+    public static final long DEFAULT_HEARTBEAT_INTERVAL_MILLIS = 100;
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    
+    private final ParkingLot lot;
+    private final InetSocketAddress standbyAddress;
+    private final long flushIntervalNanos;
+    private final long heartbeatIntervalMillis;
+    private final Object bufferLock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES); // guarded by bufferLock
+    private ByteBuffer outgoing = ByteBuffer.allocate(INITIAL_BUFFER_BYTES); // sender thread only
+    private SocketChannel channel;
+    private Thread sender;
+    private volatile boolean running;
+    private volatile long recordsQueued;
+    private volatile long batchesSent;
+    private volatile long bytesSent;
+    private volatile IOException failure;
+    
+    public ReplicationPrimary(ParkingLot lot, InetSocketAddress standbyAddress) {
+        this(lot, standbyAddress, DEFAULT_FLUSH_INTERVAL_MICROS, DEFAULT_HEARTBEAT_INTERVAL_MILLIS);
+    }
+    
+    public ReplicationPrimary(ParkingLot lot, InetSocketAddress standbyAddress,
+                              long flushIntervalMicros, long heartbeatIntervalMillis) {
+        this.lot = lot;
+        this.standbyAddress = standbyAddress;
+        this.flushIntervalNanos = flushIntervalMicros * 1000;
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+    }
+    
+    /**
+     * Connects to the standby, starts observing the lot and ships the tickets that are
+     * already active as an initial snapshot. Start it before the lot takes traffic:
+     * a ticket that exits while the snapshot is being taken may linger on the standby.
+     */
+    public synchronized void start() throws IOException {
+        if (running) {
+            throw new IllegalStateException("Replication already running for " + lot.getName());
+        }
+        channel = SocketChannel.open(standbyAddress);
+        channel.socket().setTcpNoDelay(true);
+        running = true;
+        lot.setEventListener(this);
+        for (ParkingTicket ticket : lot.getActiveTickets().values()) {
+            ticketIssued(ticket);
+        }
+        TicketSlab slab = lot.getTicketSlab();
+        if (slab != null) {
+            for (int slot = 0; slot < slab.getCapacity(); slot++) {
+                long handle = slab.getOpenHandle(slot);
+                if (handle != TicketSlab.NO_HANDLE) {
+                    pooledTicketIssued(slab, handle);
+                }
+            }
+        }
+        sender = new Thread(this::sendLoop, "replication-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+    
+    @Override
+    public void ticketIssued(ParkingTicket ticket) {
+        int size = DeltaCodec.parkedSize(ticket);
+        synchronized (bufferLock) {
+            DeltaCodec.writeParked(reserve(size), ticket);
+            recordsQueued++;
+        }
+    }
+    
+    @Override
+    public void ticketSettled(ParkingTicket ticket) {
+        long exitMillis = ticket.getExitTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (bufferLock) {
+            DeltaCodec.writeExited(reserve(DeltaCodec.EXITED_SIZE), ticket, exitMillis);
+            recordsQueued++;
+        }
+    }
+    
+    @Override
+    public void pooledTicketIssued(TicketSlab slab, long handle) {
+        Vehicle vehicle = slab.getVehicle(handle);
+        int size = DeltaCodec.parkedSize(vehicle);
+        synchronized (bufferLock) {
+            DeltaCodec.writeParked(reserve(size), slab.getSpot(handle), slab.getSequence(handle),
+                    slab.getEntryEpochMillis(handle), vehicle, slab.getQuotedHourlyRate(handle),
+                    slab.getQuotedBaseFee(handle));
+            recordsQueued++;
+        }
+    }
+    
+    @Override
+    public void pooledTicketSettled(TicketSlab slab, long handle, long exitEpochMillis) {
+        synchronized (bufferLock) {
+            DeltaCodec.writeExited(reserve(DeltaCodec.EXITED_SIZE), slab.getSpot(handle), slab.getSequence(handle),
+                    exitEpochMillis);
+            recordsQueued++;
+        }
+    }
+    
+    /**
+     * Flushes what is queued, stops the sender and closes the connection.
+     * This hands the lot over: the standby promotes once the connection closes,
+     * so the lot is fenced and refuses new parks from here on.
+     */
+    @Override
+    public void close() {
+        stop(true);
+    }
+    
+    /**
+     * Stops replicating without flushing and drops the connection, as a crash would.
+     * The lot is fenced as well.
+     */
+    public void abort() {
+        stop(false);
+    }
+    
+    private synchronized void stop(boolean flush) {
+        if (!running) {
+            return;
+        }
+        running = false;
+        lot.setFenced(true);
+        lot.setEventListener(null);
+        LockSupport.unpark(sender);
+        try {
+            sender.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (flush && failure == null) {
+                sendPending();
+            }
+            channel.close();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+    
+    public long getRecordsQueued() {
+        return recordsQueued;
+    }
+    
+    public long getBatchesSent() {
+        return batchesSent;
+    }
+    
+    public long getBytesSent() {
+        return bytesSent;
+    }
+    
+    /**
+     * The I/O error that stopped replication, or null while the standby is reachable.
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+    
+    private ByteBuffer reserve(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+        return pending;
+    }
+    
+    private void sendLoop() {
+        long lastSentMillis = System.currentTimeMillis();
+        try {
+            while (running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                if (sendPending()) {
+                    lastSentMillis = System.currentTimeMillis();
+                } else if (System.currentTimeMillis() - lastSentMillis >= heartbeatIntervalMillis) {
+                    sendHeartbeat();
+                    lastSentMillis = System.currentTimeMillis();
+                }
+            }
+        } catch (IOException e) {
+            // The standby is gone or about to promote itself: stop admitting, and stop
+            // paying for replication on the gate path
+            failure = e;
+            lot.setFenced(true);
+            lot.setEventListener(null);
+            System.err.println("Replication to " + standbyAddress + " stopped: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Swaps the pending buffer out and writes it as one batch. Returns false if there was nothing to send.
+     */
+    private boolean sendPending() throws IOException {
+        ByteBuffer batch;
+        synchronized (bufferLock) {
+            if (pending.position() == 0) {
+                return false;
+            }
+            batch = pending;
+            pending = outgoing;
+            pending.clear();
+        }
+        outgoing = batch;
+        batch.flip();
+        writeFully(batch);
+        batchesSent++;
+        return true;
+    }
+    
+    private void sendHeartbeat() throws IOException {
+        ByteBuffer heartbeat = ByteBuffer.allocate(DeltaCodec.HEARTBEAT_SIZE);
+        DeltaCodec.writeHeartbeat(heartbeat, System.currentTimeMillis());
+        heartbeat.flip();
+        writeFully(heartbeat);
+    }
+    
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        bytesSent += bytes;
+    }
+}
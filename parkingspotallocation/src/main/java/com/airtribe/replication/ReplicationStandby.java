@@ -0,0 +1,230 @@
+package com.airtribe.replication;
+
+import com.airtribe.entity.PlateCodec;
+import com.airtribe.entity.Vehicle;
+import com.airtribe.entity.VehicleRegistry;
+import com.airtribe.service.ParkingLot;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Standby side of primary/standby replication.
+ * Listens on a loopback port for one primary and applies its deltas to a local
+ * ParkingLot that was built with the same layout and ticket prefix (and the same
+ * vehicle class registrations). Spots are addressed by floor and position, so
+ * applying a delta is O(1).
+ *
+ * The standby promotes itself once the primary is gone: immediately when the
+ * connection closes or breaks, or after failoverTimeout without any record or
+ * heartbeat. After promotion the local lot is the one gates should use; its ticket
+ * counter has already been advanced past every replicated ticket.
+ */
+public class ReplicationStandby implements AutoCloseable {
+    /**
+     * Silence after which the standby promotes itself. There is no fencing token or
+     * promotion epoch: the primary fences its own lot only once it sees its stream
+     * break (ReplicationPrimary). A primary that is merely paused longer than this,
+     * e.g. by a GC pause, keeps admitting after it resumes until its next write to
+     * the closed connection fails, so for that window both lots can allocate spots.
+     */
+    public static final long DEFAULT_FAILOVER_TIMEOUT_MILLIS = 500;
+    
+    private final ParkingLot lot;
+    private final long failoverTimeoutMillis;
+    private final ServerSocket serverSocket;
+    private final CountDownLatch promoted = new CountDownLatch(1);
+    private volatile Consumer<ParkingLot> promotionListener;
+    private volatile long recordsApplied;
+    private volatile long applyErrors;
+    private volatile long lastContactNanos;
+    private volatile long promotedAfterNanos = -1;
+    private volatile Socket connection;
+    private volatile boolean closed;
+    private Thread receiver;
+    
+    /**
+     * Binds the standby to the given loopback port; 0 picks a free port (see getPort()).
+     */
+    public ReplicationStandby(ParkingLot lot, int port) throws IOException {
+        this(lot, port, DEFAULT_FAILOVER_TIMEOUT_MILLIS);
+    }
+    
+    public ReplicationStandby(ParkingLot lot, int port, long failoverTimeoutMillis) throws IOException {
+        this.lot = lot;
+        this.failoverTimeoutMillis = failoverTimeoutMillis;
+        this.serverSocket = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+    }
+    
+    /**
+     * Starts waiting for the primary in the background. Failover is only armed once a
+     * primary has connected.
+     */
+    public synchronized void start() {
+        if (receiver != null) {
+            throw new IllegalStateException("Standby already started");
+        }
+        receiver = new Thread(this::receive, "replication-standby");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+    
+    /**
+     * Called with the local lot once the standby has taken over.
+     */
+    public void setPromotionListener(Consumer<ParkingLot> promotionListener) {
+        this.promotionListener = promotionListener;
+    }
+    
+    /**
+     * Waits until the standby has promoted itself; returns false on timeout.
+     */
+    public boolean awaitPromotion(long timeout, TimeUnit unit) throws InterruptedException {
+        return promoted.await(timeout, unit);
+    }
+    
+    public boolean isPromoted() {
+        return promoted.getCount() == 0;
+    }
+    
+    /**
+     * Time from the last record or heartbeat received to promotion, or -1 if not promoted.
+     */
+    public long getPromotedAfterNanos() {
+        return promotedAfterNanos;
+    }
+    
+    public long getRecordsApplied() {
+        return recordsApplied;
+    }
+    
+    /**
+     * Deltas that could not be applied, e.g. because the layouts differ.
+     */
+    public long getApplyErrors() {
+        return applyErrors;
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    public ParkingLot getLot() {
+        return lot;
+    }
+    
+    /**
+     * Stops listening without promoting.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        Socket socket = connection;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+    
+    private void receive() {
+        try (Socket socket = serverSocket.accept()) {
+            connection = socket;
+            socket.setSoTimeout((int) failoverTimeoutMillis);
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            lastContactNanos = System.nanoTime();
+            while (true) {
+                byte type = in.readByte();
+                lastContactNanos = System.nanoTime();
+                apply(type, in);
+            }
+        } catch (SocketTimeoutException e) {
+            System.err.println("Replication: no contact from primary for " + failoverTimeoutMillis + " ms");
+        } catch (EOFException e) {
+            System.err.println("Replication: primary closed the connection");
+        } catch (IOException e) {
+            if (closed) {
+                return;
+            }
+            System.err.println("Replication: connection to primary lost: " + e.getMessage());
+        }
+        if (!closed) {
+            promote();
+        }
+    }
+    
+    private void apply(byte type, DataInputStream in) throws IOException {
+        switch (type) {
+            case DeltaCodec.PARKED: {
+                int floor = in.readInt();
+                int spotIndex = in.readInt();
+                long sequence = in.readLong();
+                long entryMillis = in.readLong();
+                int classId = in.readInt();
+                long packedPlate = in.readLong();
+                double quotedRate = in.readDouble();
+                double quotedBaseFee = in.readDouble();
+                String plate;
+                if (packedPlate == PlateCodec.NOT_PACKABLE) {
+                    byte[] bytes = new byte[in.readUnsignedShort()];
+                    in.readFully(bytes);
+                    plate = new String(bytes, StandardCharsets.UTF_8);
+                } else {
+                    plate = PlateCodec.decode(packedPlate);
+                }
+                try {
+                    Vehicle vehicle = Vehicle.of(plate, VehicleRegistry.byId(classId));
+                    lot.restoreParked(floor, spotIndex, sequence, vehicle, entryMillis, quotedRate, quotedBaseFee);
+                    recordsApplied++;
+                } catch (RuntimeException e) {
+                    reportApplyError("park of ticket " + sequence, e);
+                }
+                break;
+            }
+            case DeltaCodec.EXITED: {
+                int floor = in.readInt();
+                int spotIndex = in.readInt();
+                long sequence = in.readLong();
+                long exitMillis = in.readLong();
+                try {
+                    lot.restoreExited(floor, spotIndex, sequence, exitMillis);
+                    recordsApplied++;
+                } catch (RuntimeException e) {
+                    reportApplyError("exit of ticket " + sequence, e);
+                }
+                break;
+            }
+            case DeltaCodec.HEARTBEAT:
+                in.readLong();
+                break;
+            default:
+                throw new IOException("Corrupt replication stream: record type " + type);
+        }
+    }
+    
+    private void reportApplyError(String what, RuntimeException e) {
+        applyErrors++;
+        System.err.println("Replication: could not apply " + what + ": " + e.getMessage());
+    }
+    
+    private void promote() {
+        promotedAfterNanos = System.nanoTime() - lastContactNanos;
+        promoted.countDown();
+        System.out.println("Standby promoted: " + lot.getName() + " now serves " + lot.getActiveTickets().size()
+                + " active tickets");
+        Consumer<ParkingLot> listener = promotionListener;
+        if (listener != null) {
+            listener.accept(lot);
+        }
+    }
+}
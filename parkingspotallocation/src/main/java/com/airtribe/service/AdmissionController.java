@@ -0,0 +1,162 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotQuery;
+import com.airtribe.entity.Vehicle;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission layer in front of a ParkingLot.
+ * Every entry request goes through three cheap checks before it may enter the
+ * allocation path, and is turned away with a specific outcome at the first one it fails:
+ * 1. Lot full: the floors' live bitsets show no spot matching the request's query,
+ *    so permit-reserved bays do not count for the default query; answered without
+ *    taking any lock.
+ * 2. Rate limit: the gate's token bucket is empty.
+ * 3. Latency budget: at most maxConcurrentParks requests allocate at once, and a
+ *    request that cannot get in before its budget runs out is shed rather than queued.
+ * Exits are never throttled, since they free capacity.
+ */
+public class AdmissionController {
+    public static final Duration DEFAULT_BUDGET = Duration.ofMillis(50);
+    
+    private final ParkingLot lot;
+    private final ParkingFloor[] floors;
+    private final Semaphore parkPermits;
+    private final long defaultBudgetNanos;
+    private final Map<String, GateRateLimiter> gates = new ConcurrentHashMap<>();
+    private final LongAdder[] outcomeCounts = new LongAdder[AdmissionResult.Outcome.values().length];
+    
+    public AdmissionController(ParkingLot lot, int maxConcurrentParks) {
+        this(lot, maxConcurrentParks, DEFAULT_BUDGET);
+    }
+    
+    /**
+     * @param maxConcurrentParks Requests allowed inside the allocation path at once
+     * @param defaultBudget How long a request may wait to enter the allocation path
+     */
+    public AdmissionController(ParkingLot lot, int maxConcurrentParks, Duration defaultBudget) {
+        if (maxConcurrentParks < 1) {
+            throw new IllegalArgumentException("maxConcurrentParks must be positive: " + maxConcurrentParks);
+        }
+        this.lot = lot;
+        this.floors = lot.getFloors().toArray(new ParkingFloor[0]);
+        this.parkPermits = new Semaphore(maxConcurrentParks);
+        this.defaultBudgetNanos = defaultBudget.toNanos();
+        for (int i = 0; i < outcomeCounts.length; i++) {
+            outcomeCounts[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Registers a gate, or replaces its limit if it is already registered.
+     */
+    public GateRateLimiter registerGate(String gateId, double ratePerSecond, int burst) {
+        GateRateLimiter limiter = new GateRateLimiter(gateId, ratePerSecond, burst);
+        gates.put(gateId, limiter);
+        return limiter;
+    }
+    
+    /**
+     * Admits a vehicle through a gate using its class's default spot query and the default budget.
+     */
+    public AdmissionResult parkVehicle(String gateId, Vehicle vehicle) {
+        return parkVehicle(gateId, vehicle, vehicle.getVehicleClass().getDefaultSpotQuery(), defaultBudgetNanos);
+    }
+    
+    /**
+     * Admits a vehicle through a gate. The budget bounds the time spent waiting to
+     * enter the allocation path; the allocation itself is not interrupted.
+     */
+    public AdmissionResult parkVehicle(String gateId, Vehicle vehicle, SpotQuery query, long budgetNanos) {
+        long start = System.nanoTime();
+        GateRateLimiter limiter = gates.get(gateId);
+        if (limiter == null) {
+            throw new IllegalArgumentException("Unknown gate: " + gateId);
+        }
+        // Checked before the rate limit so a full lot does not drain the gate's tokens
+        if (!hasRoomFor(vehicle, query)) {
+            return reject(AdmissionResult.LOT_FULL);
+        }
+        if (!limiter.tryAcquire(start)) {
+            return reject(AdmissionResult.RATE_LIMITED);
+        }
+        if (!parkPermits.tryAcquire()) {
+            try {
+                long remaining = budgetNanos - (System.nanoTime() - start);
+                if (remaining <= 0 || !parkPermits.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                    return reject(AdmissionResult.BUDGET_EXCEEDED);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return reject(AdmissionResult.BUDGET_EXCEEDED);
+            }
+        }
+        ParkingTicket ticket;
+        try {
+            ticket = lot.parkVehicle(vehicle, query);
+        } finally {
+            parkPermits.release();
+        }
+        if (ticket == null) {
+            return reject(AdmissionResult.NO_SPOT);
+        }
+        outcomeCounts[AdmissionResult.Outcome.ADMITTED.ordinal()].increment();
+        return AdmissionResult.admitted(ticket);
+    }
+    
+    /**
+     * Passes an exit straight through to the lot.
+     */
+    public double exitVehicle(String ticketId) {
+        return lot.exitVehicle(ticketId);
+    }
+    
+    /**
+     * True if some floor currently has a free spot the vehicle's default query accepts.
+     */
+    public boolean hasRoomFor(Vehicle vehicle) {
+        return hasRoomFor(vehicle, vehicle.getVehicleClass().getDefaultSpotQuery());
+    }
+    
+    /**
+     * True if some floor currently has a free spot the vehicle fits matching one of the query's criteria.
+     * Reads the floors' live counters and bitsets only; the answer may be stale by the
+     * time the vehicle is parked, which then shows up as NO_SPOT.
+     */
+    public boolean hasRoomFor(Vehicle vehicle, SpotQuery query) {
+        for (ParkingFloor floor : floors) {
+            if (floor.hasAvailableSpot(vehicle, query)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public GateRateLimiter getGate(String gateId) {
+        return gates.get(gateId);
+    }
+    
+    /**
+     * Requests that ended with the given outcome since the controller was created.
+     */
+    public long getCount(AdmissionResult.Outcome outcome) {
+        return outcomeCounts[outcome.ordinal()].sum();
+    }
+    
+    public ParkingLot getLot() {
+        return lot;
+    }
+    
+    private AdmissionResult reject(AdmissionResult rejection) {
+        outcomeCounts[rejection.getOutcome().ordinal()].increment();
+        return rejection;
+    }
+}
@@ -0,0 +1,60 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingTicket;
+
+/**
+ * Outcome of an entry request that went through the AdmissionController.
+ * Rejections are shared constants, so turning a request away allocates nothing.
+ */
+public final class AdmissionResult {
+    
+    public enum Outcome {
+        /** The vehicle was parked; the result carries its ticket. */
+        ADMITTED,
+        /** The gate exceeded its token-bucket limit. */
+        RATE_LIMITED,
+        /** Free counts show no fitting spot; the allocation path was skipped. */
+        LOT_FULL,
+        /** The request could not enter the allocation path within its latency budget. */
+        BUDGET_EXCEEDED,
+        /** Admitted, but the last fitting spot was taken by a concurrent request. */
+        NO_SPOT
+    }
+    
+    static final AdmissionResult RATE_LIMITED = new AdmissionResult(Outcome.RATE_LIMITED, null);
+    static final AdmissionResult LOT_FULL = new AdmissionResult(Outcome.LOT_FULL, null);
+    static final AdmissionResult BUDGET_EXCEEDED = new AdmissionResult(Outcome.BUDGET_EXCEEDED, null);
+    static final AdmissionResult NO_SPOT = new AdmissionResult(Outcome.NO_SPOT, null);
+    
+    private final Outcome outcome;
+    private final ParkingTicket ticket;
+    
+    private AdmissionResult(Outcome outcome, ParkingTicket ticket) {
+        this.outcome = outcome;
+        this.ticket = ticket;
+    }
+    
+    static AdmissionResult admitted(ParkingTicket ticket) {
+        return new AdmissionResult(Outcome.ADMITTED, ticket);
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    public boolean isAdmitted() {
+        return outcome == Outcome.ADMITTED;
+    }
+    
+    /**
+     * Ticket of an admitted vehicle, or null for every other outcome.
+     */
+    public ParkingTicket getTicket() {
+        return ticket;
+    }
+    
+    @Override
+    public String toString() {
+        return ticket == null ? outcome.name() : outcome + "[" + ticket.getTicketId() + "]";
+    }
+}
@@ -1,14 +1,19 @@
 package com.airtribe.service;
 
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingSpot;
 import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.Vehicle;
 import com.airtribe.strategy.FeeCalculationStrategy;
 
 /**
  * Fee calculator that uses a pluggable strategy for calculation.
  * Follows Strategy Pattern and Dependency Inversion Principle.
+ * The strategy is swapped with a volatile publish, so a swap never blocks
+ * and every calculation sees either the old or the new strategy in full.
  */
 public class FeeCalculator {
-    private FeeCalculationStrategy strategy;
+    private volatile FeeCalculationStrategy strategy;
     
     public FeeCalculator(FeeCalculationStrategy strategy) {
         this.strategy = strategy;
@@ -18,7 +23,33 @@ public class FeeCalculator {
         this.strategy = strategy;
     }
     
+    public FeeCalculationStrategy getStrategy() {
+        return strategy;
+    }
+    
     public double calculateFee(ParkingTicket ticket) {
         return strategy.calculateFee(ticket);
     }
+    
+    /**
+     * Calculates a pooled ticket's fee from its primitive fields.
+     */
+    public double calculateFee(Vehicle vehicle, long entryEpochMillis, long exitEpochMillis,
+                               double quotedHourlyRate, double quotedBaseFee) {
+        return strategy.calculateFee(vehicle, entryEpochMillis, exitEpochMillis, quotedHourlyRate, quotedBaseFee);
+    }
+    
+    /**
+     * Quotes the hourly rate for a vehicle that just entered; NaN if the strategy prices at exit.
+     */
+    public double quoteHourlyRate(Vehicle vehicle, ParkingSpot spot, ParkingFloor floor) {
+        return strategy.quoteHourlyRate(vehicle, spot, floor);
+    }
+    
+    /**
+     * Quotes the base fee for a vehicle that just entered; NaN if the strategy prices at exit.
+     */
+    public double quoteBaseFee(Vehicle vehicle, ParkingSpot spot, ParkingFloor floor) {
+        return strategy.quoteBaseFee(vehicle, spot, floor);
+    }
 }
@@ -0,0 +1,313 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Floor-affinity execution mode for a ParkingLot.
+ * Every floor is owned by a single worker thread that consumes park/exit commands
+ * from a lock-free multi-producer single-consumer queue. Because only the owner
+ * allocates on its floor, the worker answers queries straight from the floor's
+ * capability index, which is always current, and drains commands in batches.
+ *
+ * A park request starts at the first floor whose counters show a fitting free spot
+ * and is forwarded floor by floor until one of them places the vehicle; exits go
+ * straight to the worker of the ticket's floor.
+ * Created through ParkingLot.startFloorWorkers().
+ */
+public class FloorWorkerExecutor implements AutoCloseable {
+    private static final int MAX_BATCH = 256;
+    private static final int IDLE_SPINS = 128;
+    
+    private final ParkingLot parkingLot;
+    private final FloorWorker[] workers;
+    private final AtomicInteger submitting = new AtomicInteger(); // gates between the closed check and enqueue
+    private volatile boolean closed; // no new requests are accepted
+    private volatile boolean stopping; // workers exit once nothing more can reach them
+    
+    FloorWorkerExecutor(ParkingLot parkingLot) {
+        this.parkingLot = parkingLot;
+        List<ParkingFloor> floors = parkingLot.getFloors();
+        this.workers = new FloorWorker[floors.size()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new FloorWorker(i, floors.get(i));
+        }
+    }
+    
+    void start() {
+        for (FloorWorker worker : workers) {
+            worker.thread.start();
+        }
+    }
+    
+    /**
+     * Submits a park request using the vehicle class's default query, so permit-reserved
+     * spots are never handed out. Completes with the issued ticket, or null if no floor has room;
+     * fails with RejectedExecutionException once the executor is closed.
+     */
+    public CompletableFuture<ParkingTicket> parkVehicle(Vehicle vehicle) {
+        return parkVehicle(vehicle, vehicle.getVehicleClass().getDefaultSpotQuery());
+    }
+    
+    /**
+     * Submits a park request for a multi-criteria query. Each floor tries the whole
+     * query, best criterion first, before the request moves on to the next floor.
+     */
+    public CompletableFuture<ParkingTicket> parkVehicle(Vehicle vehicle, SpotQuery query) {
+        Command command = Command.park(vehicle, query);
+        submit(firstFloorWithRoom(vehicle, query), command);
+        return command.parked;
+    }
+    
+    /**
+     * Submits an exit request. Completes with the fee, or -1 for an unknown or already used ticket.
+     */
+    public CompletableFuture<Double> exitVehicle(String ticketId) {
+        ParkingTicket ticket = parkingLot.getActiveTicket(ticketId);
+        if (ticket == null) {
+            return CompletableFuture.completedFuture(-1.0);
+        }
+        Command command = Command.exit(ticket);
+        submit(ticket.getAssignedSpot().getFloorNumber() - workers[0].floor.getFloorNumber(), command);
+        return command.exited;
+    }
+    
+    /**
+     * Stops accepting commands, lets every worker drain what is already queued, including
+     * requests forwarded between floors, and waits for them to finish.
+     * Requests submitted afterwards fail with RejectedExecutionException.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        // A gate that passed the closed check is still queueing; the workers must see its request
+        while (submitting.get() != 0) {
+            Thread.onSpinWait();
+        }
+        stopping = true;
+        for (FloorWorker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+        for (FloorWorker worker : workers) {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    public int getWorkerCount() {
+        return workers.length;
+    }
+    
+    /**
+     * First floor that shows a free spot for the query, judged like AdmissionController.hasRoomFor.
+     * Requests only move up, so starting at a floor that cannot match could miss a lower one that can.
+     */
+    private int firstFloorWithRoom(Vehicle vehicle, SpotQuery query) {
+        for (int i = 0; i < workers.length; i++) {
+            if (workers[i].floor.hasAvailableSpot(vehicle, query)) {
+                return i;
+            }
+        }
+        // The floors say everything is full; still let the last floor answer authoritatively
+        return workers.length - 1;
+    }
+    
+    private void submit(int workerIndex, Command command) {
+        submitting.incrementAndGet();
+        try {
+            if (closed) {
+                command.fail(new RejectedExecutionException("Floor workers stopped for " + parkingLot.getName()));
+                return;
+            }
+            workers[workerIndex].enqueue(command);
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+    
+    /**
+     * A park or exit request travelling between floor workers.
+     */
+    private static final class Command {
+        final Vehicle vehicle;
+        final SpotQuery query;
+        final ParkingTicket exitTicket;
+        final CompletableFuture<ParkingTicket> parked;
+        final CompletableFuture<Double> exited;
+        ParkingTicket issuedTicket;
+        double fee;
+        
+        private Command(Vehicle vehicle, SpotQuery query, ParkingTicket exitTicket) {
+            this.vehicle = vehicle;
+            this.query = query;
+            this.exitTicket = exitTicket;
+            this.parked = exitTicket == null ? new CompletableFuture<>() : null;
+            this.exited = exitTicket == null ? null : new CompletableFuture<>();
+        }
+        
+        static Command park(Vehicle vehicle, SpotQuery query) {
+            return new Command(vehicle, query, null);
+        }
+        
+        static Command exit(ParkingTicket ticket) {
+            return new Command(null, null, ticket);
+        }
+        
+        boolean isExit() {
+            return exitTicket != null;
+        }
+        
+        void complete() {
+            if (isExit()) {
+                exited.complete(fee);
+            } else {
+                parked.complete(issuedTicket);
+            }
+        }
+        
+        void fail(Throwable cause) {
+            if (isExit()) {
+                exited.completeExceptionally(cause);
+            } else {
+                parked.completeExceptionally(cause);
+            }
+        }
+    }
+    
+    /**
+     * Single-writer owner of one floor. Everything except the queue and the
+     * sleeping flag is touched only by the worker thread. Free spots are read from
+     * the floor's index on every request rather than copied at start, so spots freed
+     * while the lot switched modes are never lost.
+     */
+    private final class FloorWorker implements Runnable {
+        final int position;
+        final ParkingFloor floor;
+        final Thread thread;
+        final MpscQueue<Command> queue = new MpscQueue<>();
+        volatile boolean sleeping;
+        
+        private final Command[] completed = new Command[MAX_BATCH];
+        
+        FloorWorker(int position, ParkingFloor floor) {
+            this.position = position;
+            this.floor = floor;
+            this.thread = new Thread(this, "floor-worker-" + floor.getFloorNumber());
+            this.thread.setDaemon(true);
+        }
+        
+        void enqueue(Command command) {
+            queue.offer(command);
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+        
+        @Override
+        public void run() {
+            int idle = 0;
+            while (true) {
+                int drained = drainBatch();
+                if (drained > 0) {
+                    idle = 0;
+                    continue;
+                }
+                if (stopping) {
+                    // Requests only move to higher floors: once the previous worker is gone, anything it
+                    // forwarded is already in the queue, so check it first and the queue second
+                    if ((position == 0 || !workers[position - 1].thread.isAlive()) && queue.isEmpty()) {
+                        return;
+                    }
+                    Thread.yield();
+                    continue;
+                }
+                if (++idle < IDLE_SPINS) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                sleeping = true;
+                if (queue.isEmpty() && !stopping) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+                idle = 0;
+            }
+        }
+        
+        /**
+         * Applies up to MAX_BATCH queued commands, then completes the ones that
+         * finished here so waiting gates are woken once per drain rather than mid-batch.
+         */
+        private int drainBatch() {
+            int drained = 0;
+            int done = 0;
+            Command command;
+            while (drained < MAX_BATCH && (command = queue.poll()) != null) {
+                drained++;
+                try {
+                    if (command.isExit()) {
+                        exit(command);
+                    } else if (!park(command)) {
+                        if (position + 1 < workers.length) {
+                            workers[position + 1].enqueue(command);
+                            continue;
+                        }
+                    }
+                    completed[done++] = command;
+                } catch (RuntimeException e) {
+                    command.fail(e);
+                }
+            }
+            for (int i = 0; i < done; i++) {
+                completed[i].complete();
+                completed[i] = null;
+            }
+            return drained;
+        }
+        
+        /**
+         * Places the vehicle through the floor's capability index. The index only offers
+         * spots the vehicle fits, so a refusal means the spot changed outside this worker;
+         * the search is retried until the index stops offering new spots.
+         */
+        private boolean park(Command command) {
+            ParkingSpot spot = floor.findAvailableSpot(command.vehicle, command.query);
+            while (spot != null) {
+                if (spot.parkVehicle(command.vehicle)) {
+                    try {
+                        command.issuedTicket = parkingLot.issueTicket(command.vehicle, spot);
+                    } catch (RuntimeException e) {
+                        spot.removeVehicle();
+                        throw e;
+                    }
+                    return true;
+                }
+                ParkingSpot next = floor.findAvailableSpot(command.vehicle, command.query);
+                if (next == spot) {
+                    // The index keeps offering a spot that refuses the vehicle; let the next floor try
+                    return false;
+                }
+                spot = next;
+            }
+            return false;
+        }
+        
+        private void exit(Command command) {
+            ParkingTicket ticket = command.exitTicket;
+            command.fee = parkingLot.settleTicket(ticket);
+            if (command.fee < 0) {
+                return;
+            }
+            ticket.getAssignedSpot().removeVehicle();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.airtribe.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket for one gate.
+ * Implemented as a virtual-scheduling bucket: the only state is the theoretical
+ * time at which the bucket would be full again, so taking a token is a single CAS
+ * and refilling needs no background thread.
+ */
+public class GateRateLimiter {
+    private final String gateId;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt; // nanoTime at which the bucket holds burst tokens again
+    
+    /**
+     * @param ratePerSecond Sustained admissions per second
+     * @param burst Admissions allowed back to back after the gate has been idle
+     */
+    public GateRateLimiter(String gateId, double ratePerSecond, int burst) {
+        if (!(ratePerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Invalid limit for gate " + gateId + ": " + ratePerSecond + "/s, burst " + burst);
+        }
+        this.gateId = gateId;
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        try {
+            // tryAcquire computes up to burstNanos + nanosPerToken ahead of now
+            this.burstNanos = Math.multiplyExact(nanosPerToken, (long) burst);
+            Math.addExact(burstNanos, nanosPerToken);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Burst window out of range for gate " + gateId + ": "
+                    + ratePerSecond + "/s, burst " + burst);
+        }
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+    
+    /**
+     * Takes one token if available. Never blocks.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+    
+    boolean tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+    
+    public String getGateId() {
+        return gateId;
+    }
+    
+    public double getRatePerSecond() {
+        return 1_000_000_000.0 / nanosPerToken;
+    }
+}
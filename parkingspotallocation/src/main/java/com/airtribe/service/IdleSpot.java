@@ -0,0 +1,38 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingSpot;
+
+/**
+ * A spot and how long it was occupied over the period of an idle-spot ranking.
+ */
+public final class IdleSpot {
+    private final ParkingSpot spot;
+    private final int occupiedMinutes;
+    private final int periodMinutes;
+    
+    IdleSpot(ParkingSpot spot, int occupiedMinutes, int periodMinutes) {
+        this.spot = spot;
+        this.occupiedMinutes = occupiedMinutes;
+        this.periodMinutes = periodMinutes;
+    }
+    
+    public ParkingSpot getSpot() {
+        return spot;
+    }
+    
+    public int getOccupiedMinutes() {
+        return occupiedMinutes;
+    }
+    
+    /**
+     * Share of the period the spot was occupied, from 0.0 (never) to 1.0 (always).
+     */
+    public double getUtilization() {
+        return (double) occupiedMinutes / periodMinutes;
+    }
+    
+    @Override
+    public String toString() {
+        return spot.getSpotId() + " " + occupiedMinutes + " min (" + String.format("%.1f", getUtilization() * 100) + "%)";
+    }
+}
@@ -0,0 +1,32 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingTicket;
+
+/**
+ * Observer of ticket transitions in a ParkingLot, e.g. for replication.
+ * Called on the thread that performs the transition, in both the lock-based and
+ * floor-worker modes, so implementations must be fast and must not block.
+ */
+public interface LotEventListener {
+    
+    /**
+     * A ticket was issued; called before the ticket is returned or can be exited.
+     */
+    void ticketIssued(ParkingTicket ticket);
+    
+    /**
+     * A ticket was settled (exit time and fee set); called before its spot is freed.
+     */
+    void ticketSettled(ParkingTicket ticket);
+    
+    /**
+     * A pooled ticket was opened in the lot's ticket slab; called before the handle is returned.
+     */
+    void pooledTicketIssued(TicketSlab slab, long handle);
+    
+    /**
+     * A pooled ticket was claimed for exit; called before its spot is freed and its slot released,
+     * so the slab accessors are still valid for the handle.
+     */
+    void pooledTicketSettled(TicketSlab slab, long handle, long exitEpochMillis);
+}
@@ -0,0 +1,61 @@
+package com.airtribe.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free unbounded multi-producer single-consumer queue.
+ * Producers swap themselves in as the new tail with one atomic exchange and then
+ * link the previous tail to the new node; only the owning consumer thread may poll.
+ */
+final class MpscQueue<E> {
+    private final AtomicReference<Node<E>> tail;
+    private Node<E> head; // consumer-owned
+    
+    MpscQueue() {
+        Node<E> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+    
+    /**
+     * Enqueues an element. Safe to call from any thread.
+     */
+    void offer(E element) {
+        Node<E> node = new Node<>(element);
+        Node<E> previous = tail.getAndSet(node);
+        previous.next = node;
+    }
+    
+    /**
+     * Dequeues the next element, or returns null if none is visible yet.
+     * Consumer thread only.
+     */
+    E poll() {
+        Node<E> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        E element = next.element;
+        next.element = null;
+        head = next;
+        return element;
+    }
+    
+    /**
+     * True if nothing has been enqueued past the consumer's position, including
+     * producers that have swapped the tail but not linked their node yet.
+     * Consumer thread only.
+     */
+    boolean isEmpty() {
+        return head == tail.get();
+    }
+    
+    private static final class Node<E> {
+        E element;
+        volatile Node<E> next;
+        
+        Node(E element) {
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Incremental sweeper over a lot's time-bucketed ticket index.
+ * Two thresholds are tracked, each with a watermark of how far it has been swept:
+ * - audit: once a ticket is auditAfter old, its spot is checked once and an ANOMALY
+ *   is raised if the spot no longer holds the ticket's vehicle
+ * - overstay: once a ticket is overstayAfter old, OVERSTAY is raised if the vehicle
+ *   is still there (ANOMALY if the spot has been vacated in the meantime)
+ *
+ * Each sweep only visits tickets that crossed a threshold since the previous sweep,
+ * so its cost is proportional to the number of newly expired tickets, not to the
+ * number of active tickets.
+ */
+public class OverstaySweeper {
+    private final ParkingLot parkingLot;
+    private final TicketTimeIndex index;
+    private final long overstayAfterMillis;
+    private final long auditAfterMillis;
+    private final Consumer<SweepEvent> listener;
+    private long overstayWatermark = Long.MIN_VALUE;
+    private long auditWatermark = Long.MIN_VALUE;
+    private long visitedInLastSweep;
+    private ScheduledExecutorService scheduler;
+    
+    public OverstaySweeper(ParkingLot parkingLot, Duration overstayAfter, Duration auditAfter,
+                           Consumer<SweepEvent> listener) {
+        if (auditAfter.compareTo(overstayAfter) > 0) {
+            throw new IllegalArgumentException("Audit threshold must not exceed the overstay threshold");
+        }
+        this.parkingLot = parkingLot;
+        this.index = parkingLot.getTicketTimeIndex();
+        this.overstayAfterMillis = overstayAfter.toMillis();
+        this.auditAfterMillis = auditAfter.toMillis();
+        this.listener = listener;
+    }
+    
+    /**
+     * Runs one sweep as of the given time and returns the number of events raised.
+     */
+    public synchronized int sweep(long nowMillis) {
+        int[] events = new int[1];
+        long[] visited = new long[1];
+        
+        long auditCutoff = nowMillis - auditAfterMillis;
+        index.forEachEnteredBetween(auditWatermark, auditCutoff, ticket -> {
+            visited[0]++;
+            if (isActive(ticket) && !holdsVehicle(ticket)) {
+                listener.accept(new SweepEvent(SweepEvent.Type.ANOMALY, ticket, nowMillis));
+                events[0]++;
+            }
+        });
+        auditWatermark = Math.max(auditWatermark, auditCutoff);
+        
+        long overstayCutoff = nowMillis - overstayAfterMillis;
+        index.forEachEnteredBetween(overstayWatermark, overstayCutoff, ticket -> {
+            visited[0]++;
+            if (isActive(ticket)) {
+                SweepEvent.Type type = holdsVehicle(ticket) ? SweepEvent.Type.OVERSTAY : SweepEvent.Type.ANOMALY;
+                listener.accept(new SweepEvent(type, ticket, nowMillis));
+                events[0]++;
+            }
+        });
+        overstayWatermark = Math.max(overstayWatermark, overstayCutoff);
+        
+        index.pruneBefore(overstayWatermark);
+        visitedInLastSweep = visited[0];
+        return events[0];
+    }
+    
+    /**
+     * Sweeps in the background at a fixed interval using the wall clock.
+     */
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Sweeper already running");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "overstay-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> sweep(System.currentTimeMillis()),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+    
+    /**
+     * Tickets visited by the last sweep; grows with expired tickets, not with lot size.
+     */
+    public synchronized long getVisitedInLastSweep() {
+        return visitedInLastSweep;
+    }
+    
+    private boolean isActive(ParkingTicket ticket) {
+        return parkingLot.getActiveTicket(ticket.getTicketId()) == ticket;
+    }
+    
+    private boolean holdsVehicle(ParkingTicket ticket) {
+        ParkingSpot spot = ticket.getAssignedSpot();
+        if (spot.getParkedVehicle() == ticket.getVehicle()) {
+            return true;
+        }
+        // The spot read synchronizes with the exit that freed it; a ticket settled since is not an anomaly
+        return !isActive(ticket);
+    }
+}
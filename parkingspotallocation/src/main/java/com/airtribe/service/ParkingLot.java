@@ -5,11 +5,20 @@ import com.airtribe.strategy.BestFitSpotFindingStrategy;
 import com.airtribe.strategy.HourlyFeeStrategy;
 import com.airtribe.strategy.SpotFindingStrategy;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Main parking lot management class.
@@ -21,21 +30,36 @@ public class ParkingLot {
     private static final Object lock = new Object();
     
     private final String name;
+    private final int firstFloorNumber;
+    private final String ticketIdPrefix;
     private final List<ParkingFloor> floors;
     private final Map<String, ParkingTicket> activeTickets; // ticketId -> ParkingTicket
+    private final TicketTimeIndex ticketTimeIndex; // active tickets by entry-time bucket
     private final FeeCalculator feeCalculator;
     private final SpotFindingStrategy defaultSpotFindingStrategy;
+    private volatile boolean verbose = true;
+    private volatile FloorWorkerExecutor floorWorkers;
+    private volatile TicketSlab ticketSlab; // pooled tickets, null until enabled
+    private volatile LotEventListener eventListener;
+    private volatile boolean fenced; // refuses new parks, e.g. once a standby may have taken over
     
     private ParkingLot(String name, int numberOfFloors) {
+        this(name, 1, numberOfFloors, ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+    }
+    
+    private ParkingLot(String name, int firstFloorNumber, int numberOfFloors, String ticketIdPrefix) {
         this.name = name;
+        this.firstFloorNumber = firstFloorNumber;
+        this.ticketIdPrefix = ticketIdPrefix;
         this.floors = new ArrayList<>();
         this.activeTickets = new ConcurrentHashMap<>();
+        this.ticketTimeIndex = new TicketTimeIndex();
         this.feeCalculator = new FeeCalculator(new HourlyFeeStrategy());
         this.defaultSpotFindingStrategy = new BestFitSpotFindingStrategy();
         
         // Initialize floors with default strategy
-        for (int i = 1; i <= numberOfFloors; i++) {
-            floors.add(new ParkingFloor(i, defaultSpotFindingStrategy));
+        for (int i = 0; i < numberOfFloors; i++) {
+            floors.add(new ParkingFloor(firstFloorNumber + i, defaultSpotFindingStrategy));
         }
     }
     
@@ -61,78 +85,354 @@ public class ParkingLot {
         return instance;
     }
     
+    /**
+     * Creates an independent (non-singleton) parking lot that owns a contiguous
+     * range of floors, starting at firstFloorNumber.
+     * Used for shard nodes that each hold part of a larger lot; tickets issued by
+     * the returned lot carry the given ticket ID prefix.
+     */
+    public static ParkingLot create(String name, int firstFloorNumber, int numberOfFloors, String ticketIdPrefix) {
+        if (firstFloorNumber < 1 || numberOfFloors < 1) {
+            throw new IllegalArgumentException("Invalid floor range: " + firstFloorNumber + "+" + numberOfFloors);
+        }
+        return new ParkingLot(name, firstFloorNumber, numberOfFloors, ticketIdPrefix);
+    }
+    
     /**
      * Adds a parking spot to a specific floor.
      */
     public void addParkingSpot(int floorNumber, ParkingSpot spot) {
-        if (floorNumber < 1 || floorNumber > floors.size()) {
+        getFloor(floorNumber).addSpot(spot);
+    }
+    
+    /**
+     * Adds many parking spots to a floor in one step.
+     * Used by bulk layout loading; different floors may be filled in parallel.
+     */
+    public void addParkingSpots(int floorNumber, Collection<ParkingSpot> spots) {
+        getFloor(floorNumber).addSpots(spots);
+    }
+    
+    /**
+     * Gets a floor by its floor number.
+     */
+    public ParkingFloor getFloor(int floorNumber) {
+        if (!ownsFloor(floorNumber)) {
             throw new IllegalArgumentException("Invalid floor number: " + floorNumber);
         }
-        floors.get(floorNumber - 1).addSpot(spot);
+        return floors.get(floorNumber - firstFloorNumber);
+    }
+    
+    public boolean ownsFloor(int floorNumber) {
+        return floorNumber >= firstFloorNumber && floorNumber < firstFloorNumber + floors.size();
     }
     
     /**
      * Parks a vehicle in the parking lot.
      * Automatically finds and assigns an available spot.
-     * Thread-safe for concurrent vehicle entries.
+     * Permit-reserved spots are never assigned here (see SpotFindingStrategy).
+     * Thread-safe for concurrent vehicle entries; while floor workers are running
+     * the request is routed to them with the vehicle class's default query instead
+     * of taking the lot-wide lock.
      */
-    public synchronized ParkingTicket parkVehicle(Vehicle vehicle) {
-        // Find an available spot across all floors
-        ParkingSpot availableSpot = findAvailableSpot(vehicle);
-        
+    public ParkingTicket parkVehicle(Vehicle vehicle) {
+        return park(vehicle, null);
+    }
+    
+    /**
+     * Parks a vehicle in the first spot matching a multi-criteria query,
+     * e.g. "MEDIUM with charger, else MEDIUM, else LARGE".
+     * Each criterion is tried on every floor before falling back to the next one;
+     * floors answer from their capability bitsets. Under floor workers each floor
+     * tries the whole query before the request moves on to the next floor.
+     */
+    public ParkingTicket parkVehicle(Vehicle vehicle, SpotQuery query) {
+        return park(vehicle, query);
+    }
+    
+    /**
+     * Parks in whichever mode is in effect; a null query means the lot's spot-finding
+     * strategy under the lock and the vehicle class's default query under floor workers.
+     * A worker failure is reported and mapped to null, like a full lot.
+     */
+    private ParkingTicket park(Vehicle vehicle, SpotQuery query) {
+        if (fenced) {
+            return reportFenced(vehicle);
+        }
+        while (true) {
+            FloorWorkerExecutor workers = floorWorkers;
+            if (workers == null) {
+                synchronized (this) {
+                    // Re-checked under the monitor: workers started while this thread waited now own the floors
+                    if (floorWorkers == null) {
+                        return parkInSpot(vehicle, query == null ? findAvailableSpot(vehicle) : findAvailableSpot(vehicle, query));
+                    }
+                }
+                continue;
+            }
+            CompletableFuture<ParkingTicket> parked = query == null
+                    ? workers.parkVehicle(vehicle)
+                    : workers.parkVehicle(vehicle, query);
+            try {
+                return reportParked(vehicle, parked.join());
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    reportWorkerFailure("park " + vehicle, e.getCause());
+                    return null;
+                }
+                // The workers stopped before taking the request; retry in the mode now in effect
+            }
+        }
+    }
+    
+    private ParkingTicket parkInSpot(Vehicle vehicle, ParkingSpot availableSpot) {
         if (availableSpot == null) {
-            System.out.println("No available spot for " + vehicle);
-            return null;
+            return reportParked(vehicle, null);
         }
         
         // Park the vehicle in the spot
         boolean parked = availableSpot.parkVehicle(vehicle);
         
         if (!parked) {
-            System.out.println("Failed to park " + vehicle + " in spot " + availableSpot.getSpotId());
+            if (verbose) {
+                System.out.println("Failed to park " + vehicle + " in spot " + availableSpot.getSpotId());
+            }
             return null;
         }
         
-        // Create and store parking ticket
-        ParkingTicket ticket = new ParkingTicket(vehicle, availableSpot);
+        ParkingTicket ticket;
+        try {
+            ticket = issueTicket(vehicle, availableSpot);
+        } catch (RuntimeException e) {
+            availableSpot.removeVehicle();
+            throw e;
+        }
+        return reportParked(vehicle, ticket);
+    }
+    
+    /**
+     * Creates, prices and registers the ticket for a vehicle that has just been
+     * placed in a spot. Called by whichever thread owns the spot's floor.
+     */
+    ParkingTicket issueTicket(Vehicle vehicle, ParkingSpot spot) {
+        ParkingTicket ticket = new ParkingTicket(ticketIdPrefix, vehicle, spot);
+        ParkingFloor floor = getFloor(spot.getFloorNumber());
+        double quotedRate = feeCalculator.quoteHourlyRate(vehicle, spot, floor);
+        if (!Double.isNaN(quotedRate)) {
+            ticket.lockHourlyRate(quotedRate);
+        }
+        double quotedBaseFee = feeCalculator.quoteBaseFee(vehicle, spot, floor);
+        if (!Double.isNaN(quotedBaseFee)) {
+            ticket.lockBaseFee(quotedBaseFee);
+        }
+        LotEventListener listener = eventListener;
+        if (listener != null) {
+            listener.ticketIssued(ticket);
+        }
         activeTickets.put(ticket.getTicketId(), ticket);
-        
+        ticketTimeIndex.add(ticket);
+        return ticket;
+    }
+    
+    private ParkingTicket reportFenced(Vehicle vehicle) {
+        if (verbose) {
+            System.out.println("Lot " + name + " is fenced; not admitting " + vehicle);
+        }
+        return null;
+    }
+    
+    private ParkingTicket reportParked(Vehicle vehicle, ParkingTicket ticket) {
+        if (!verbose) {
+            return ticket;
+        }
+        if (ticket == null) {
+            System.out.println("No available spot for " + vehicle);
+            return null;
+        }
+        ParkingSpot spot = ticket.getAssignedSpot();
         System.out.println("✓ Vehicle parked successfully!");
         System.out.println("  Ticket: " + ticket.getTicketId());
         System.out.println("  Vehicle: " + vehicle);
-        System.out.println("  Spot: " + availableSpot.getSpotId() + " (Floor " + availableSpot.getFloorNumber() + ")");
+        System.out.println("  Spot: " + spot.getSpotId() + " (Floor " + spot.getFloorNumber() + ")");
         System.out.println("  Entry Time: " + ticket.getEntryTime());
-        
+        if (ticket.hasQuotedHourlyRate()) {
+            System.out.println("  Quoted Rate: $" + String.format("%.2f", ticket.getQuotedHourlyRate()) + "/hour");
+        }
         return ticket;
     }
     
     /**
      * Processes vehicle exit and calculates parking fee.
-     * Thread-safe for concurrent vehicle exits.
+     * Thread-safe for concurrent vehicle exits; routed to the owning floor's
+     * worker while floor workers are running. A worker failure is reported and
+     * mapped to -1, like an unknown ticket; the ticket then stays active.
      */
-    public synchronized double exitVehicle(String ticketId) {
+    public double exitVehicle(String ticketId) {
+        while (true) {
+            FloorWorkerExecutor workers = floorWorkers;
+            if (workers == null) {
+                synchronized (this) {
+                    // Re-checked under the monitor: workers started while this thread waited now own the floors
+                    if (floorWorkers == null) {
+                        return exitLocked(ticketId);
+                    }
+                }
+                continue;
+            }
+            ParkingTicket ticket = activeTickets.get(ticketId);
+            try {
+                return reportExited(ticketId, ticket, workers.exitVehicle(ticketId).join());
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    reportWorkerFailure("exit ticket " + ticketId, e.getCause());
+                    return -1;
+                }
+                // The workers stopped before taking the request; retry in the mode now in effect
+            }
+        }
+    }
+    
+    private double exitLocked(String ticketId) {
         ParkingTicket ticket = activeTickets.get(ticketId);
-        
         if (ticket == null) {
-            System.out.println("Invalid ticket ID: " + ticketId);
+            return reportExited(ticketId, null, -1);
+        }
+        
+        double fee = settleTicket(ticket);
+        
+        // Remove vehicle from spot, unless another exit settled the ticket first
+        if (fee >= 0) {
+            ticket.getAssignedSpot().removeVehicle();
+        }
+        
+        return reportExited(ticketId, ticket, fee);
+    }
+    
+    private void reportWorkerFailure(String what, Throwable cause) {
+        if (verbose) {
+            System.out.println("Floor worker could not " + what + ": " + cause);
+        }
+    }
+    
+    /**
+     * Claims an active ticket, stamps its exit time and computes the fee.
+     * Returns -1 if the ticket was already settled; the caller frees the spot.
+     * If the fee cannot be computed the claim is undone, so the ticket stays active.
+     */
+    double settleTicket(ParkingTicket ticket) {
+        if (!activeTickets.remove(ticket.getTicketId(), ticket)) {
             return -1;
         }
+        ticketTimeIndex.remove(ticket);
         
         // Set exit time
         ticket.setExitTime(LocalDateTime.now());
         
         // Calculate fee
-        double fee = feeCalculator.calculateFee(ticket);
+        double fee;
+        try {
+            fee = feeCalculator.calculateFee(ticket);
+        } catch (RuntimeException e) {
+            ticket.setExitTime(null);
+            ticketTimeIndex.add(ticket);
+            activeTickets.put(ticket.getTicketId(), ticket);
+            throw e;
+        }
         ticket.setFee(fee);
         ticket.markAsPaid();
-        
-        // Remove vehicle from spot
-        ParkingSpot spot = ticket.getAssignedSpot();
+        LotEventListener listener = eventListener;
+        if (listener != null) {
+            listener.ticketSettled(ticket);
+        }
+        return fee;
+    }
+    
+    /**
+     * Re-applies a park that happened on another instance of this lot, such as a
+     * replication primary with the same layout. The spot is identified by its position
+     * on the floor; the ticket keeps its original number, entry time and quoted prices.
+     * Idempotent: a ticket that is already active is returned as is.
+     */
+    public synchronized ParkingTicket restoreParked(int floorNumber, int spotIndex, long sequence, Vehicle vehicle,
+                                                    long entryEpochMillis, double quotedHourlyRate, double quotedBaseFee) {
+        ParkingTicket existing = activeTickets.get(ParkingTicket.formatTicketId(ticketIdPrefix, sequence));
+        if (existing != null) {
+            return existing;
+        }
+        ParkingSpot spot = requireSpot(floorNumber, spotIndex);
+        if (!spot.parkVehicle(vehicle)) {
+            throw new IllegalStateException("Spot " + spot.getSpotId() + " is not free for replicated ticket " + sequence);
+        }
+        ParkingTicket ticket = ParkingTicket.restore(ticketIdPrefix, sequence, vehicle, spot, entryEpochMillis,
+                quotedHourlyRate, quotedBaseFee);
+        activeTickets.put(ticket.getTicketId(), ticket);
+        ticketTimeIndex.add(ticket);
+        return ticket;
+    }
+    
+    /**
+     * Re-applies an exit that happened on another instance of this lot and frees the spot.
+     * Returns the settled ticket, or null if no such ticket is active here.
+     */
+    public synchronized ParkingTicket restoreExited(int floorNumber, int spotIndex, long sequence, long exitEpochMillis) {
+        ParkingTicket ticket = activeTickets.get(ParkingTicket.formatTicketId(ticketIdPrefix, sequence));
+        if (ticket == null) {
+            return null;
+        }
+        ParkingSpot spot = requireSpot(floorNumber, spotIndex);
+        if (ticket.getAssignedSpot() != spot) {
+            throw new IllegalStateException("Replicated exit of ticket " + sequence + " names spot " + spot.getSpotId()
+                    + " but the ticket holds " + ticket.getAssignedSpot().getSpotId());
+        }
+        activeTickets.remove(ticket.getTicketId());
+        ticketTimeIndex.remove(ticket);
+        ticket.setExitTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(exitEpochMillis), ZoneId.systemDefault()));
+        ticket.setFee(feeCalculator.calculateFee(ticket));
+        ticket.markAsPaid();
         spot.removeVehicle();
-        
-        // Remove ticket from active tickets
-        activeTickets.remove(ticketId);
-        
+        return ticket;
+    }
+    
+    private ParkingSpot requireSpot(int floorNumber, int spotIndex) {
+        ParkingSpot spot = getFloor(floorNumber).getSpot(spotIndex);
+        if (spot == null) {
+            throw new IllegalArgumentException("No spot " + spotIndex + " on floor " + floorNumber);
+        }
+        return spot;
+    }
+    
+    /**
+     * Installs the observer of ticket transitions; null removes it.
+     */
+    public void setEventListener(LotEventListener eventListener) {
+        this.eventListener = eventListener;
+    }
+    
+    /**
+     * Fences the lot: while fenced, every park is refused (null or NO_HANDLE) and
+     * exits still work. Set by a replication primary once its standby may have taken
+     * over, so the two lots never allocate spots at the same time.
+     */
+    public void setFenced(boolean fenced) {
+        this.fenced = fenced;
+    }
+    
+    public boolean isFenced() {
+        return fenced;
+    }
+    
+    ParkingTicket getActiveTicket(String ticketId) {
+        return activeTickets.get(ticketId);
+    }
+    
+    private double reportExited(String ticketId, ParkingTicket ticket, double fee) {
+        if (!verbose) {
+            return fee;
+        }
+        if (ticket == null || fee < 0) {
+            System.out.println("Invalid ticket ID: " + ticketId);
+            return fee;
+        }
         System.out.println("\n✓ Vehicle exit processed!");
         System.out.println("  Ticket: " + ticketId);
         System.out.println("  Vehicle: " + ticket.getVehicle());
@@ -140,10 +440,234 @@ public class ParkingLot {
         System.out.println("  Exit Time: " + ticket.getExitTime());
         System.out.println("  Duration: " + ticket.getParkingDurationInHours() + " hours");
         System.out.println("  Parking Fee: $" + String.format("%.2f", fee));
-        
         return fee;
     }
     
+    /**
+     * Switches the lot to floor-worker mode: each floor gets one worker thread that
+     * owns all spot allocation on it, fed by a lock-free command queue.
+     * parkVehicle/exitVehicle keep working and are routed to the workers.
+     * Spots must not be added while the workers are running.
+     */
+    public synchronized FloorWorkerExecutor startFloorWorkers() {
+        if (floorWorkers != null) {
+            throw new IllegalStateException("Floor workers already running for " + name);
+        }
+        FloorWorkerExecutor workers = new FloorWorkerExecutor(this);
+        workers.start();
+        floorWorkers = workers;
+        return workers;
+    }
+    
+    /**
+     * Drains and stops the floor workers and returns to the lock-based mode.
+     */
+    public synchronized void stopFloorWorkers() {
+        FloorWorkerExecutor workers = floorWorkers;
+        if (workers != null) {
+            floorWorkers = null;
+            workers.close();
+        }
+    }
+    
+    public FloorWorkerExecutor getFloorWorkers() {
+        return floorWorkers;
+    }
+    
+    /**
+     * Enables pooled tickets with room for the given number of concurrently parked vehicles.
+     * Opt-in: afterwards parkVehicleHandle/exitVehicleHandle run without allocating
+     * at steady state, next to the regular ticket-based methods.
+     */
+    public synchronized TicketSlab enableTicketSlab(int capacity) {
+        if (ticketSlab != null) {
+            throw new IllegalStateException("Ticket slab already enabled for " + name);
+        }
+        ticketSlab = new TicketSlab(capacity);
+        return ticketSlab;
+    }
+    
+    /**
+     * Parks a vehicle using a pooled ticket and returns its handle, or
+     * TicketSlab.NO_HANDLE if there is no spot or no free ticket slot.
+     * The spot comes from the vehicle class's default query, answered by the floor
+     * bitsets; timestamps are epoch milliseconds. Never prints, allocates nothing
+     * at steady state, and is not recorded in getActiveTickets() or the ticket time index.
+     * Reported to the event listener like regular tickets, so pooled tickets are replicated.
+     */
+    public synchronized long parkVehicleHandle(Vehicle vehicle) {
+        TicketSlab slab = requireTicketSlab();
+        if (fenced) {
+            return TicketSlab.NO_HANDLE;
+        }
+        SpotQuery query = vehicle.getVehicleClass().getDefaultSpotQuery();
+        for (int i = 0; i < floors.size(); i++) {
+            ParkingFloor floor = floors.get(i);
+            ParkingSpot spot = floor.findAvailableSpot(vehicle, query);
+            if (spot != null && spot.parkVehicle(vehicle)) {
+                long handle = slab.open(vehicle, spot, System.currentTimeMillis(),
+                        feeCalculator.quoteHourlyRate(vehicle, spot, floor), feeCalculator.quoteBaseFee(vehicle, spot, floor));
+                if (handle == TicketSlab.NO_HANDLE) {
+                    spot.removeVehicle();
+                    return handle;
+                }
+                LotEventListener listener = eventListener;
+                if (listener != null) {
+                    listener.pooledTicketIssued(slab, handle);
+                }
+                return handle;
+            }
+        }
+        return TicketSlab.NO_HANDLE;
+    }
+    
+    /**
+     * Processes the exit of a vehicle parked with parkVehicleHandle and returns the fee,
+     * or -1 if the handle is not open (unknown or already used).
+     * The fee is computed before the ticket is claimed, so a failing fee strategy
+     * leaves the ticket open and the vehicle parked.
+     */
+    public synchronized double exitVehicleHandle(long handle) {
+        TicketSlab slab = requireTicketSlab();
+        if (!slab.isOpen(handle)) {
+            return -1;
+        }
+        long exitMillis = System.currentTimeMillis();
+        double fee = feeCalculator.calculateFee(slab.getVehicle(handle), slab.getEntryEpochMillis(handle),
+                exitMillis, slab.getQuotedHourlyRate(handle), slab.getQuotedBaseFee(handle));
+        if (!slab.claim(handle)) {
+            return -1;
+        }
+        LotEventListener listener = eventListener;
+        if (listener != null) {
+            listener.pooledTicketSettled(slab, handle, exitMillis);
+        }
+        slab.getSpot(handle).removeVehicle();
+        slab.release(handle);
+        return fee;
+    }
+    
+    public TicketSlab getTicketSlab() {
+        return ticketSlab;
+    }
+    
+    private TicketSlab requireTicketSlab() {
+        TicketSlab slab = ticketSlab;
+        if (slab == null) {
+            throw new IllegalStateException("Ticket slab not enabled for " + name);
+        }
+        if (floorWorkers != null) {
+            throw new IllegalStateException("Pooled tickets are not routed to floor workers");
+        }
+        return slab;
+    }
+    
+    /**
+     * Starts recording per-spot occupancy history on every floor, keeping the given
+     * number of days in fixed memory (184 bytes per spot and day). Days follow the
+     * system time zone's current UTC offset. Enable it once the layout is loaded.
+     */
+    public synchronized void enableOccupancyTimeline(int retainedDays) {
+        ZoneOffset offset = ZoneId.systemDefault().getRules().getOffset(Instant.now());
+        for (ParkingFloor floor : floors) {
+            floor.enableOccupancyTimeline(retainedDays, offset);
+        }
+    }
+    
+    /**
+     * Utilization heatmap of one day: entry [floor position][hour] is the share of
+     * that floor's spot-minutes in that hour that were occupied.
+     */
+    public double[][] getFloorHeatmap(LocalDate day) {
+        double[][] heatmap = new double[floors.size()][];
+        for (int f = 0; f < floors.size(); f++) {
+            SpotOccupancyTimeline timeline = requireTimeline(floors.get(f));
+            long[] occupied = timeline.occupiedMinutesByHour(day);
+            heatmap[f] = new double[occupied.length];
+            if (timeline.getSpotCount() > 0) {
+                for (int hour = 0; hour < occupied.length; hour++) {
+                    heatmap[f][hour] = occupied[hour] / (timeline.getSpotCount() * 60.0);
+                }
+            }
+        }
+        return heatmap;
+    }
+    
+    /**
+     * Returns up to limit spots ordered from least to most occupied over the given
+     * days (inclusive), across all floors. Candidates for re-striping.
+     */
+    public List<IdleSpot> rankIdleSpots(LocalDate from, LocalDate to, int limit) {
+        // Candidates are packed as (occupied minutes << 32) | spot number across the lot and
+        // kept in a max-heap of the limit smallest, so ranking needs no objects and no full sort
+        long[] heap = new long[Math.max(limit, 0)];
+        int size = 0;
+        int[] firstSpot = new int[floors.size()];
+        int next = 0;
+        for (int f = 0; f < floors.size(); f++) {
+            firstSpot[f] = next;
+            int[] minutes = requireTimeline(floors.get(f)).occupiedMinutes(from, to);
+            for (int spot = 0; spot < minutes.length; spot++, next++) {
+                long candidate = ((long) minutes[spot] << 32) | next;
+                if (size < heap.length) {
+                    heap[size++] = candidate;
+                    siftUp(heap, size - 1);
+                } else if (size > 0 && candidate < heap[0]) {
+                    heap[0] = candidate;
+                    siftDown(heap, size);
+                }
+            }
+        }
+        Arrays.sort(heap, 0, size);
+        
+        int periodMinutes = (int) (to.toEpochDay() - from.toEpochDay() + 1) * SpotOccupancyTimeline.MINUTES_PER_DAY;
+        List<IdleSpot> idle = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int spotNumber = (int) heap[i];
+            int f = 0;
+            while (f + 1 < firstSpot.length && firstSpot[f + 1] <= spotNumber) {
+                f++;
+            }
+            ParkingSpot spot = floors.get(f).getSpot(spotNumber - firstSpot[f]);
+            idle.add(new IdleSpot(spot, (int) (heap[i] >>> 32), periodMinutes));
+        }
+        return idle;
+    }
+    
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0 && heap[(index - 1) >>> 1] < value) {
+            heap[index] = heap[(index - 1) >>> 1];
+            index = (index - 1) >>> 1;
+        }
+        heap[index] = value;
+    }
+    
+    private static void siftDown(long[] heap, int size) {
+        long value = heap[0];
+        int index = 0;
+        while (2 * index + 1 < size) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= value) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+    
+    private SpotOccupancyTimeline requireTimeline(ParkingFloor floor) {
+        SpotOccupancyTimeline timeline = floor.getOccupancyTimeline();
+        if (timeline == null) {
+            throw new IllegalStateException("Occupancy timeline not enabled for " + name);
+        }
+        return timeline;
+    }
+    
     /**
      * Finds an available parking spot for the given vehicle.
      * Uses best-fit algorithm across all floors.
@@ -159,6 +683,22 @@ public class ParkingLot {
         return null;
     }
     
+    private ParkingSpot findAvailableSpot(Vehicle vehicle, SpotQuery query) {
+        for (int i = 0; i < query.getCriterionCount(); i++) {
+            SpotCriterion criterion = query.getCriterion(i);
+            if (!criterion.fits(vehicle)) {
+                continue;
+            }
+            for (ParkingFloor floor : floors) {
+                ParkingSpot spot = floor.findAvailableSpot(criterion);
+                if (spot != null) {
+                    return spot;
+                }
+            }
+        }
+        return null;
+    }
+    
     /**
      * Displays real-time availability of parking spots.
      */
@@ -174,7 +714,8 @@ public class ParkingLot {
             System.out.println("  Large spots: " + floor.getAvailableSpotCountBySize(SpotSize.LARGE));
         }
         
-        System.out.println("\nActive Vehicles: " + activeTickets.size());
+        TicketSlab slab = ticketSlab;
+        System.out.println("\nActive Vehicles: " + (activeTickets.size() + (slab == null ? 0 : slab.getOpenCount())));
         System.out.println("=".repeat(50));
     }
     
@@ -200,10 +741,38 @@ public class ParkingLot {
         return name;
     }
     
+    public FeeCalculator getFeeCalculator() {
+        return feeCalculator;
+    }
+    
+    /**
+     * Turns per-operation console output on or off.
+     * Load and stress runs switch it off so printing does not dominate the measurement.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+    
+    public boolean isVerbose() {
+        return verbose;
+    }
+    
+    public String getTicketIdPrefix() {
+        return ticketIdPrefix;
+    }
+    
     public List<ParkingFloor> getFloors() {
         return new ArrayList<>(floors);
     }
     
+    /**
+     * Active tickets indexed by entry time, for sweeps over long-parked vehicles
+     * that should not copy or scan the whole active-ticket map.
+     */
+    public TicketTimeIndex getTicketTimeIndex() {
+        return ticketTimeIndex;
+    }
+    
     public Map<String, ParkingTicket> getActiveTickets() {
         return new ConcurrentHashMap<>(activeTickets);
     }
@@ -0,0 +1,51 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingTicket;
+
+/**
+ * Finding reported by the OverstaySweeper for one active ticket.
+ */
+public class SweepEvent {
+    
+    public enum Type {
+        /** The vehicle is still parked after the overstay threshold. */
+        OVERSTAY,
+        /** The ticket is still active but its spot no longer holds the ticket's vehicle. */
+        ANOMALY
+    }
+    
+    private final Type type;
+    private final ParkingTicket ticket;
+    private final long detectedAtMillis;
+    
+    public SweepEvent(Type type, ParkingTicket ticket, long detectedAtMillis) {
+        this.type = type;
+        this.ticket = ticket;
+        this.detectedAtMillis = detectedAtMillis;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public ParkingTicket getTicket() {
+        return ticket;
+    }
+    
+    public long getDetectedAtMillis() {
+        return detectedAtMillis;
+    }
+    
+    /**
+     * How long the vehicle had been parked when the event was raised.
+     */
+    public long getParkedMillis() {
+        return detectedAtMillis - ticket.getEntryEpochMillis();
+    }
+    
+    @Override
+    public String toString() {
+        return type + "[" + ticket.getTicketId() + ", " + ticket.getVehicle() + ", Spot:"
+                + ticket.getAssignedSpot().getSpotId() + ", parked " + getParkedMillis() / 60_000 + " min]";
+    }
+}
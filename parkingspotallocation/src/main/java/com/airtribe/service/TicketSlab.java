@@ -0,0 +1,186 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.Vehicle;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Preallocated store for pooled tickets, used by the lot's zero-allocation
+ * park/exit path. Ticket fields live in parallel primitive arrays, one slot per
+ * ticket, and a ticket is referred to by a long handle:
+ * (slot generation << 32) | slot index.
+ * A slot's generation is bumped each time it is released, so a stale handle
+ * (e.g. a second exit with the same handle) is rejected instead of touching the
+ * slot's next ticket. Free slots are kept on a lock-free stack.
+ */
+public class TicketSlab {
+    /** Returned instead of a handle when no ticket could be issued. */
+    public static final long NO_HANDLE = 0;
+    
+    private final Vehicle[] vehicles;
+    private final ParkingSpot[] spots;
+    private final long[] entryEpochMillis;
+    private final double[] quotedHourlyRates;
+    private final double[] quotedBaseFees;
+    private final long[] sequences;
+    private final int[] generations;
+    private final AtomicLongArray liveHandles; // handle of the slot's open ticket, NO_HANDLE otherwise
+    private final int[] nextFree;
+    private final AtomicLong freeHead; // (tag << 32) | (slot + 1); slot part 0 when empty
+    private final AtomicInteger openCount = new AtomicInteger();
+    
+    public TicketSlab(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Slab capacity must be positive: " + capacity);
+        }
+        this.vehicles = new Vehicle[capacity];
+        this.spots = new ParkingSpot[capacity];
+        this.entryEpochMillis = new long[capacity];
+        this.quotedHourlyRates = new double[capacity];
+        this.quotedBaseFees = new double[capacity];
+        this.sequences = new long[capacity];
+        this.generations = new int[capacity];
+        this.liveHandles = new AtomicLongArray(capacity);
+        this.nextFree = new int[capacity];
+        for (int slot = 0; slot < capacity; slot++) {
+            generations[slot] = 1;
+            nextFree[slot] = slot + 1 < capacity ? slot + 1 : -1;
+        }
+        this.freeHead = new AtomicLong(1);
+    }
+    
+    /**
+     * Opens a ticket in a free slot and returns its handle, or NO_HANDLE if the slab is full.
+     */
+    long open(Vehicle vehicle, ParkingSpot spot, long entryMillis, double quotedHourlyRate, double quotedBaseFee) {
+        int slot = popFree();
+        if (slot < 0) {
+            return NO_HANDLE;
+        }
+        vehicles[slot] = vehicle;
+        spots[slot] = spot;
+        entryEpochMillis[slot] = entryMillis;
+        quotedHourlyRates[slot] = quotedHourlyRate;
+        quotedBaseFees[slot] = quotedBaseFee;
+        sequences[slot] = ParkingTicket.reserveSequence();
+        long handle = ((long) generations[slot] << 32) | slot;
+        liveHandles.set(slot, handle);
+        openCount.incrementAndGet();
+        return handle;
+    }
+    
+    /**
+     * Claims an open ticket for closing. Exactly one caller wins per ticket;
+     * the winner reads the slot and then calls release().
+     */
+    boolean claim(long handle) {
+        int slot = slotOf(handle);
+        return handle != NO_HANDLE && slot >= 0 && slot < vehicles.length
+                && liveHandles.compareAndSet(slot, handle, NO_HANDLE);
+    }
+    
+    /**
+     * Returns a claimed slot to the free stack under a new generation.
+     */
+    void release(long handle) {
+        int slot = slotOf(handle);
+        vehicles[slot] = null;
+        spots[slot] = null;
+        int generation = generations[slot] + 1;
+        generations[slot] = generation > 0 ? generation : 1;
+        openCount.decrementAndGet();
+        pushFree(slot);
+    }
+    
+    public boolean isOpen(long handle) {
+        int slot = slotOf(handle);
+        return handle != NO_HANDLE && slot >= 0 && slot < vehicles.length && liveHandles.get(slot) == handle;
+    }
+    
+    /*
+     * Slot accessors below are valid for an open handle, or for a handle the caller
+     * has claimed but not yet released.
+     */
+    
+    public Vehicle getVehicle(long handle) {
+        return vehicles[slotOf(handle)];
+    }
+    
+    public ParkingSpot getSpot(long handle) {
+        return spots[slotOf(handle)];
+    }
+    
+    public long getEntryEpochMillis(long handle) {
+        return entryEpochMillis[slotOf(handle)];
+    }
+    
+    /**
+     * Hourly rate locked in at entry, or NaN if the ticket is priced at exit.
+     */
+    public double getQuotedHourlyRate(long handle) {
+        return quotedHourlyRates[slotOf(handle)];
+    }
+    
+    /**
+     * Base fee locked in at entry, or NaN if the ticket is priced at exit.
+     */
+    public double getQuotedBaseFee(long handle) {
+        return quotedBaseFees[slotOf(handle)];
+    }
+    
+    /**
+     * Ticket number, drawn from the same sequence as regular ticket IDs.
+     */
+    public long getSequence(long handle) {
+        return sequences[slotOf(handle)];
+    }
+    
+    /**
+     * Handle of the ticket open in the given slot, or NO_HANDLE if the slot is free.
+     * Used to walk the open tickets, e.g. for a replication snapshot.
+     */
+    public long getOpenHandle(int slot) {
+        return liveHandles.get(slot);
+    }
+    
+    public int getOpenCount() {
+        return openCount.get();
+    }
+    
+    public int getCapacity() {
+        return vehicles.length;
+    }
+    
+    static int slotOf(long handle) {
+        return (int) handle;
+    }
+    
+    private int popFree() {
+        while (true) {
+            long head = freeHead.get();
+            int slot = (int) head - 1;
+            if (slot < 0) {
+                return -1;
+            }
+            // A stale next link only matters if the head moved, and then the tag makes the CAS fail
+            long next = nextFree[slot] + 1;
+            if (freeHead.compareAndSet(head, (((head >>> 32) + 1) << 32) | next)) {
+                return slot;
+            }
+        }
+    }
+    
+    private void pushFree(int slot) {
+        while (true) {
+            long head = freeHead.get();
+            nextFree[slot] = (int) head - 1;
+            if (freeHead.compareAndSet(head, (((head >>> 32) + 1) << 32) | (slot + 1))) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.ParkingTicket;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Active tickets grouped by entry-time bucket.
+ * Buckets are kept in entry order, so "tickets that entered before T" is a head
+ * range of the map and can be visited without touching younger tickets.
+ * Add and remove are O(log buckets); the bucket for a ticket is derived from its
+ * entry time, so removal needs no reverse lookup.
+ */
+public class TicketTimeIndex {
+    public static final long DEFAULT_BUCKET_MILLIS = 60_000;
+    
+    private final long bucketMillis;
+    private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private volatile long prunedBeforeBucket = Long.MIN_VALUE;
+    
+    public TicketTimeIndex() {
+        this(DEFAULT_BUCKET_MILLIS);
+    }
+    
+    public TicketTimeIndex(long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive: " + bucketMillis);
+        }
+        this.bucketMillis = bucketMillis;
+    }
+    
+    public void add(ParkingTicket ticket) {
+        long key = bucketOf(ticket.getEntryEpochMillis());
+        while (true) {
+            Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+            bucket.tickets.add(ticket);
+            if (!bucket.retired) {
+                return;
+            }
+            // Lost a race with pruning of an empty bucket; retry once it is gone or revived
+            bucket.tickets.remove(ticket);
+            Thread.onSpinWait();
+        }
+    }
+    
+    public void remove(ParkingTicket ticket) {
+        long key = bucketOf(ticket.getEntryEpochMillis());
+        Bucket bucket = buckets.get(key);
+        if (bucket != null && bucket.tickets.remove(ticket)
+                && key < prunedBeforeBucket && bucket.tickets.isEmpty()) {
+            // Pruning has already passed this bucket, so the last ticket out drops it
+            retire(key, bucket);
+        }
+    }
+    
+    /**
+     * Visits every indexed ticket that entered in [fromMillis, toMillis).
+     * Only buckets overlapping the range are touched; tickets in the two edge
+     * buckets are filtered individually.
+     */
+    public void forEachEnteredBetween(long fromMillis, long toMillis, Consumer<ParkingTicket> action) {
+        if (fromMillis >= toMillis) {
+            return;
+        }
+        ConcurrentNavigableMap<Long, Bucket> range = buckets.subMap(bucketOf(fromMillis), true, bucketOf(toMillis - 1), true);
+        for (Bucket bucket : range.values()) {
+            for (ParkingTicket ticket : bucket.tickets) {
+                long entry = ticket.getEntryEpochMillis();
+                if (entry >= fromMillis && entry < toMillis) {
+                    action.accept(ticket);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Drops empty buckets that lie entirely before the given time; buckets behind
+     * that point are dropped later by remove() when their last ticket leaves.
+     * Each call only walks buckets passed since the previous call. Single caller
+     * (the sweeper); callers pass a point no sweep will look behind again.
+     */
+    public void pruneBefore(long millis) {
+        long from = prunedBeforeBucket;
+        long to = bucketOf(millis);
+        if (to <= from) {
+            return;
+        }
+        prunedBeforeBucket = to;
+        for (Map.Entry<Long, Bucket> entry : buckets.subMap(from, true, to, false).entrySet()) {
+            if (entry.getValue().tickets.isEmpty()) {
+                retire(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    private void retire(long key, Bucket bucket) {
+        bucket.retired = true;
+        if (bucket.tickets.isEmpty()) {
+            buckets.remove(key, bucket);
+        } else {
+            bucket.retired = false;
+        }
+    }
+    
+    /**
+     * Number of indexed tickets; walks every bucket, so meant for reporting only.
+     */
+    public int size() {
+        int size = 0;
+        for (Bucket bucket : buckets.values()) {
+            size += bucket.tickets.size();
+        }
+        return size;
+    }
+    
+    public int getBucketCount() {
+        return buckets.size();
+    }
+    
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+    
+    private long bucketOf(long millis) {
+        return Math.floorDiv(millis, bucketMillis);
+    }
+    
+    private static final class Bucket {
+        final Set<ParkingTicket> tickets = ConcurrentHashMap.newKeySet();
+        volatile boolean retired;
+    }
+}
@@ -1,6 +1,7 @@
 package com.airtribe.strategy;
 
 import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.SpotCapability;
 import com.airtribe.entity.SpotSize;
 import com.airtribe.entity.Vehicle;
 
@@ -10,6 +11,8 @@ import java.util.List;
  * Best-fit strategy for finding a parking spot.
  * This strategy first tries to find an exact size match,
  * then finds the smallest spot that can accommodate the vehicle.
+ * Like the vehicle class's default SpotQuery, it tries the class's preferred
+ * capabilities first and never hands out permit-reserved spots.
  * Thread-safe implementation for concurrent access.
  */
 public class BestFitSpotFindingStrategy implements SpotFindingStrategy {
@@ -17,18 +20,30 @@ public class BestFitSpotFindingStrategy implements SpotFindingStrategy {
     @Override
     public ParkingSpot findSpot(List<ParkingSpot> spots, Vehicle vehicle) {
         SpotSize requiredSize = vehicle.getRequiredSpotSize();
+        int preferred = vehicle.getVehicleClass().getPreferredCapabilities() & ~SpotCapability.PERMIT_RESERVED.mask();
 
-        // First try to find an exact match
+        // Vehicles that want a capability (e.g. a charger) first look for an exact match that has it
+        if (preferred != 0) {
+            for (ParkingSpot spot : spots) {
+                if (spot.getSize() == requiredSize && (spot.getCapabilityMask() & preferred) == preferred
+                        && SpotFindingStrategy.isOpenToGeneralEntry(spot) && spot.canFitVehicle(vehicle)) {
+                    return spot;
+                }
+            }
+        }
+
+        // Then try to find an exact match
         // This is thread-safe as we're only reading the list
         for (ParkingSpot spot : spots) {
-            if (spot.isAvailable() && spot.getSize() == requiredSize && spot.canFitVehicle(vehicle)) {
+            if (spot.getSize() == requiredSize && SpotFindingStrategy.isOpenToGeneralEntry(spot)
+                    && spot.canFitVehicle(vehicle)) {
                 return spot;
             }
         }
 
         // If no exact match, find the next larger available spot
         for (ParkingSpot spot : spots) {
-            if (spot.canFitVehicle(vehicle)) {
+            if (SpotFindingStrategy.isOpenToGeneralEntry(spot) && spot.canFitVehicle(vehicle)) {
                 return spot;
             }
         }
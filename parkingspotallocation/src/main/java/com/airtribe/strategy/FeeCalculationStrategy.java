@@ -1,6 +1,9 @@
 package com.airtribe.strategy;
 
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingSpot;
 import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.Vehicle;
 
 /**
  * Interface for fee calculation strategy.
@@ -8,4 +11,49 @@ import com.airtribe.entity.ParkingTicket;
  */
 public interface FeeCalculationStrategy {
     double calculateFee(ParkingTicket ticket);
+    
+    /**
+     * Quotes the hourly rate to lock into a new ticket when the vehicle enters.
+     * Called once the vehicle already occupies the spot, so the floor's live
+     * counts include it. Strategies that price only at exit return NaN, the default.
+     * 
+     * @param vehicle Vehicle that was just parked
+     * @param spot Spot it was parked in
+     * @param floor Floor of that spot, for live utilization
+     * @return Hourly rate to lock into the ticket, or NaN for none
+     */
+    default double quoteHourlyRate(Vehicle vehicle, ParkingSpot spot, ParkingFloor floor) {
+        return Double.NaN;
+    }
+    
+    /**
+     * Quotes the base fee to lock into a new ticket when the vehicle enters,
+     * alongside the hourly rate. Strategies that price only at exit return NaN, the default.
+     */
+    default double quoteBaseFee(Vehicle vehicle, ParkingSpot spot, ParkingFloor floor) {
+        return Double.NaN;
+    }
+    
+    /**
+     * Calculates a fee from primitive ticket fields, without a ParkingTicket.
+     * Used by pooled (slab) tickets; implementations should not allocate.
+     * The default charges the quoted base fee plus billable hours times the quoted
+     * rate when both were locked in at entry, and otherwise prices a detached
+     * ticket with calculateFee(ParkingTicket), which allocates.
+     * 
+     * @param vehicle Vehicle that is leaving
+     * @param entryEpochMillis Entry time in epoch milliseconds
+     * @param exitEpochMillis Exit time in epoch milliseconds
+     * @param quotedHourlyRate Rate locked in at entry, or NaN for none
+     * @param quotedBaseFee Base fee locked in at entry, or NaN for none
+     * @return Fee to charge
+     */
+    default double calculateFee(Vehicle vehicle, long entryEpochMillis, long exitEpochMillis,
+                                double quotedHourlyRate, double quotedBaseFee) {
+        if (!Double.isNaN(quotedHourlyRate) && !Double.isNaN(quotedBaseFee)) {
+            return quotedBaseFee + ParkingTicket.billableHours(entryEpochMillis, exitEpochMillis) * quotedHourlyRate;
+        }
+        return calculateFee(ParkingTicket.detached(vehicle, entryEpochMillis, exitEpochMillis,
+                quotedHourlyRate, quotedBaseFee));
+    }
 }
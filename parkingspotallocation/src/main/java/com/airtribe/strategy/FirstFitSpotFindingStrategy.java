@@ -8,7 +8,7 @@ import java.util.List;
 /**
  * First-fit strategy for finding a parking spot.
  * This strategy returns the first available spot that can fit the vehicle,
- * without considering size optimization.
+ * without considering size optimization. Permit-reserved spots are skipped.
  * Thread-safe implementation for concurrent access.
  */
 public class FirstFitSpotFindingStrategy implements SpotFindingStrategy {
@@ -18,7 +18,7 @@ public class FirstFitSpotFindingStrategy implements SpotFindingStrategy {
         // Find the first available spot that can fit the vehicle
         // This is thread-safe as we're only reading the list
         for (ParkingSpot spot : spots) {
-            if (spot.isAvailable() && spot.canFitVehicle(vehicle)) {
+            if (SpotFindingStrategy.isOpenToGeneralEntry(spot) && spot.canFitVehicle(vehicle)) {
                 return spot;
             }
         }
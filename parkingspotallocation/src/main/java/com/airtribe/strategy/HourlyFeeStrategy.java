@@ -1,6 +1,7 @@
 package com.airtribe.strategy;
 
 import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.Vehicle;
 import com.airtribe.entity.VehicleType;
 
 /**
@@ -15,9 +16,22 @@ public class HourlyFeeStrategy implements FeeCalculationStrategy {
     
     @Override
     public double calculateFee(ParkingTicket ticket) {
-        long hours = ticket.getParkingDurationInHours();
-        double hourlyRate = getHourlyRate(ticket.getVehicle().getType());
-        return BASE_FEE + (hours * hourlyRate);
+        return calculateFee(ticket.getVehicle(), ticket.getParkingDurationInHours(),
+                ticket.getQuotedHourlyRate(), ticket.getQuotedBaseFee());
+    }
+    
+    @Override
+    public double calculateFee(Vehicle vehicle, long entryEpochMillis, long exitEpochMillis,
+                               double quotedHourlyRate, double quotedBaseFee) {
+        return calculateFee(vehicle, ParkingTicket.billableHours(entryEpochMillis, exitEpochMillis),
+                quotedHourlyRate, quotedBaseFee);
+    }
+    
+    private double calculateFee(Vehicle vehicle, long hours, double quotedHourlyRate, double quotedBaseFee) {
+        // Prices quoted at entry (e.g. by a previous dynamic tariff) stay binding
+        double hourlyRate = Double.isNaN(quotedHourlyRate) ? getHourlyRate(vehicle.getType()) : quotedHourlyRate;
+        double baseFee = Double.isNaN(quotedBaseFee) ? BASE_FEE : quotedBaseFee;
+        return baseFee + (hours * hourlyRate);
     }
     
     private double getHourlyRate(VehicleType type) {
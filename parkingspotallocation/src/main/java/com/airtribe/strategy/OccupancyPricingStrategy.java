@@ -0,0 +1,70 @@
+package com.airtribe.strategy;
+
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.Vehicle;
+
+/**
+ * Surge pricing driven by live occupancy.
+ * At entry the hourly rate is quoted from the current tariff and the live
+ * utilization of the spot's size on its floor, and locked into the ticket
+ * together with the tariff's base fee. At exit the fee is the locked base fee
+ * plus hours times the locked rate: O(1) and lock-free. Tariffs are swapped
+ * with a single volatile write, which never blocks in-flight exits and never
+ * changes rates already quoted.
+ */
+public class OccupancyPricingStrategy implements FeeCalculationStrategy {
+    private volatile Tariff tariff;
+    
+    public OccupancyPricingStrategy(Tariff tariff) {
+        this.tariff = tariff;
+    }
+    
+    /**
+     * Publishes a new tariff for subsequent entries and exits.
+     */
+    public void setTariff(Tariff tariff) {
+        this.tariff = tariff;
+    }
+    
+    public Tariff getTariff() {
+        return tariff;
+    }
+    
+    /**
+     * Quotes from the utilization after the vehicle took the spot, so the entering
+     * vehicle is counted: the first car on an empty floor of ten spots is quoted at
+     * 10% utilization, and the car taking the last spot at 100%.
+     */
+    @Override
+    public double quoteHourlyRate(Vehicle vehicle, ParkingSpot spot, ParkingFloor floor) {
+        return tariff.quote(vehicle.getType(), spot.getSize(), floor.getUtilization(spot.getSize()));
+    }
+    
+    @Override
+    public double quoteBaseFee(Vehicle vehicle, ParkingSpot spot, ParkingFloor floor) {
+        return tariff.getBaseFee();
+    }
+    
+    @Override
+    public double calculateFee(ParkingTicket ticket) {
+        return calculateFee(ticket.getVehicle(), ticket.getParkingDurationInHours(),
+                ticket.getQuotedHourlyRate(), ticket.getQuotedBaseFee());
+    }
+    
+    @Override
+    public double calculateFee(Vehicle vehicle, long entryEpochMillis, long exitEpochMillis,
+                               double quotedHourlyRate, double quotedBaseFee) {
+        return calculateFee(vehicle, ParkingTicket.billableHours(entryEpochMillis, exitEpochMillis),
+                quotedHourlyRate, quotedBaseFee);
+    }
+    
+    private double calculateFee(Vehicle vehicle, long hours, double quotedHourlyRate, double quotedBaseFee) {
+        Tariff current = tariff;
+        // Tickets issued before this strategy was installed carry no quote; charge the current unsurged prices
+        double hourlyRate = Double.isNaN(quotedHourlyRate) ? current.getHourlyRate(vehicle.getType()) : quotedHourlyRate;
+        double baseFee = Double.isNaN(quotedBaseFee) ? current.getBaseFee() : quotedBaseFee;
+        return baseFee + (hours * hourlyRate);
+    }
+}
@@ -0,0 +1,63 @@
+package com.airtribe.strategy;
+
+import java.util.Arrays;
+
+/**
+ * Price multiplier as a function of utilization, precomputed at 1% resolution.
+ * Built once from a few breakpoints with linear interpolation; lookups are a
+ * single array read. Immutable.
+ */
+public final class PriceCurve {
+    private static final int STEPS = 100;
+    
+    private final double[] multipliers;
+    
+    private PriceCurve(double[] multipliers) {
+        this.multipliers = multipliers;
+    }
+    
+    /**
+     * A curve that always returns 1.0.
+     */
+    public static PriceCurve flat() {
+        double[] multipliers = new double[STEPS + 1];
+        Arrays.fill(multipliers, 1.0);
+        return new PriceCurve(multipliers);
+    }
+    
+    /**
+     * Builds a curve through the given breakpoints.
+     * 
+     * @param utilizations Increasing utilizations, first 0.0 and last 1.0
+     * @param multipliers Multiplier at each utilization
+     */
+    public static PriceCurve linear(double[] utilizations, double[] multipliers) {
+        if (utilizations.length != multipliers.length || utilizations.length < 2
+                || utilizations[0] != 0.0 || utilizations[utilizations.length - 1] != 1.0) {
+            throw new IllegalArgumentException("Breakpoints must run from utilization 0.0 to 1.0");
+        }
+        for (int i = 1; i < utilizations.length; i++) {
+            if (utilizations[i] <= utilizations[i - 1]) {
+                throw new IllegalArgumentException("Breakpoint utilizations must increase");
+            }
+        }
+        double[] table = new double[STEPS + 1];
+        int segment = 0;
+        for (int step = 0; step <= STEPS; step++) {
+            double utilization = (double) step / STEPS;
+            while (utilization > utilizations[segment + 1]) {
+                segment++;
+            }
+            double from = utilizations[segment];
+            double to = utilizations[segment + 1];
+            double t = (utilization - from) / (to - from);
+            table[step] = multipliers[segment] + t * (multipliers[segment + 1] - multipliers[segment]);
+        }
+        return new PriceCurve(table);
+    }
+    
+    public double multiplierAt(double utilization) {
+        int step = (int) (utilization * STEPS);
+        return multipliers[Math.max(0, Math.min(STEPS, step))];
+    }
+}
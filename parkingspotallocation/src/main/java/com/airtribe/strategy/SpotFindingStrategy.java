@@ -1,6 +1,7 @@
 package com.airtribe.strategy;
 
 import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.SpotCapability;
 import com.airtribe.entity.Vehicle;
 
 import java.util.List;
@@ -12,11 +13,21 @@ import java.util.List;
 public interface SpotFindingStrategy {
     /**
      * Finds an available parking spot for the given vehicle.
-     * Implementations must be thread-safe as they can be called concurrently.
+     * Implementations must be thread-safe as they can be called concurrently,
+     * and must not hand out spots that fail isOpenToGeneralEntry().
      * 
      * @param spots List of parking spots to search through
      * @param vehicle Vehicle that needs a parking spot
      * @return Available ParkingSpot or null if no spot is available
      */
     ParkingSpot findSpot(List<ParkingSpot> spots, Vehicle vehicle);
+    
+    /**
+     * Whether a spot may be assigned through the regular entry path.
+     * Permit-reserved spots are only assigned through an explicit SpotQuery,
+     * matching what SpotQuery.forVehicle() offers.
+     */
+    static boolean isOpenToGeneralEntry(ParkingSpot spot) {
+        return !spot.hasCapability(SpotCapability.PERMIT_RESERVED);
+    }
 }
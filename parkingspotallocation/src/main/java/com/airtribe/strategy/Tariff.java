@@ -0,0 +1,59 @@
+package com.airtribe.strategy;
+
+import com.airtribe.entity.SpotSize;
+import com.airtribe.entity.VehicleType;
+
+import java.util.Map;
+
+/**
+ * Immutable set of prices for occupancy-based pricing: a base fee, a base
+ * hourly rate per vehicle type, and a utilization price curve per spot size.
+ * Tariffs are swapped as a whole, so readers never see a half-updated tariff.
+ */
+public final class Tariff {
+    private final double baseFee;
+    private final double[] hourlyRates;
+    private final PriceCurve[] curves;
+    
+    public Tariff(double baseFee, Map<VehicleType, Double> hourlyRates, Map<SpotSize, PriceCurve> curves) {
+        this.baseFee = baseFee;
+        this.hourlyRates = new double[VehicleType.values().length];
+        this.curves = new PriceCurve[SpotSize.values().length];
+        for (VehicleType type : VehicleType.values()) {
+            Double rate = hourlyRates.get(type);
+            if (rate == null) {
+                throw new IllegalArgumentException("Missing hourly rate for " + type);
+            }
+            this.hourlyRates[type.ordinal()] = rate;
+        }
+        for (SpotSize size : SpotSize.values()) {
+            this.curves[size.ordinal()] = curves.getOrDefault(size, PriceCurve.flat());
+        }
+    }
+    
+    /**
+     * Standard surge tariff: the hourly rates of HourlyFeeStrategy at 50% utilization,
+     * 20% off on an empty floor, rising to 2.5x when the floor is full.
+     */
+    public static Tariff standardSurge() {
+        PriceCurve surge = PriceCurve.linear(new double[] {0.0, 0.5, 0.8, 1.0}, new double[] {0.8, 1.0, 1.5, 2.5});
+        return new Tariff(5.0,
+                Map.of(VehicleType.MOTORCYCLE, 10.0, VehicleType.CAR, 20.0, VehicleType.BUS, 40.0),
+                Map.of(SpotSize.SMALL, surge, SpotSize.MEDIUM, surge, SpotSize.LARGE, surge));
+    }
+    
+    public double getBaseFee() {
+        return baseFee;
+    }
+    
+    public double getHourlyRate(VehicleType type) {
+        return hourlyRates[type.ordinal()];
+    }
+    
+    /**
+     * Hourly rate for a vehicle type in a spot of the given size at the given utilization.
+     */
+    public double quote(VehicleType type, SpotSize size, double utilization) {
+        return hourlyRates[type.ordinal()] * curves[size.ordinal()].multiplierAt(utilization);
+    }
+}
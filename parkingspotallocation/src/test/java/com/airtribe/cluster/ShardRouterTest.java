@@ -0,0 +1,129 @@
+package com.airtribe.cluster;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardRouterTest {
+    private ShardNode shard1;
+    private ShardNode shard2;
+    private ShardRouter router;
+    private GossipCoordinator gossip;
+    
+    @BeforeEach
+    void setUp() {
+        // Shard 1 starts with more free spots, so the router prefers it
+        shard1 = new ShardNode(1, "Cluster", 1, 1);
+        shard1.addParkingSpot(1, new ParkingSpot("F1-1", SpotSize.MEDIUM, 1));
+        shard1.addParkingSpot(1, new ParkingSpot("F1-2", SpotSize.MEDIUM, 1));
+        shard2 = new ShardNode(2, "Cluster", 2, 1);
+        shard2.addParkingSpot(2, new ParkingSpot("F2-1", SpotSize.MEDIUM, 2));
+        router = new ShardRouter(List.of(shard1, shard2));
+        router.setVerbose(false);
+        gossip = new GossipCoordinator(List.of(shard1, shard2), List.of(router));
+    }
+    
+    @Test
+    void entrySpillsOverWhenPreferredShardIsFull() {
+        // Filled behind the router's back, so its summary of shard 1 is stale
+        assertNotNull(shard1.parkVehicle(new Car("KA01AB0001")));
+        assertNotNull(shard1.parkVehicle(new Car("KA01AB0002")));
+        
+        ParkingTicket ticket = router.parkVehicle(new Car("KA01AB0003"));
+        assertNotNull(ticket);
+        assertTrue(ticket.getTicketId().startsWith("S2-"), ticket.getTicketId());
+        assertEquals(0, router.getSummary(1).getFreeFor(SpotSize.MEDIUM));
+        assertEquals(0, router.getSummary(2).getFreeFor(SpotSize.MEDIUM));
+        assertNull(router.parkVehicle(new Car("KA01AB0004")));
+    }
+    
+    @Test
+    void exitIsRoutedByTicketPrefix() {
+        ParkingTicket first = router.parkVehicle(new Car("KA01AB0001"));
+        ParkingTicket second = router.parkVehicle(new Car("KA01AB0002"));
+        ParkingTicket third = router.parkVehicle(new Car("KA01AB0003"));
+        assertTrue(first.getTicketId().startsWith("S1-"), first.getTicketId());
+        assertTrue(third.getTicketId().startsWith("S2-"), third.getTicketId());
+        
+        assertTrue(router.exitVehicle(third.getTicketId()) >= 0);
+        assertEquals(1, shard2.getLot().getTotalAvailableSpots());
+        assertEquals(0, shard1.getLot().getTotalAvailableSpots());
+        assertTrue(router.exitVehicle(second.getTicketId()) >= 0);
+        assertEquals(1, shard1.getLot().getTotalAvailableSpots());
+    }
+    
+    @Test
+    void exitWithUnknownOrForeignPrefixIsRejected() {
+        ParkingTicket ticket = router.parkVehicle(new Car("KA01AB0001"));
+        String sequence = ticket.getTicketId().substring(ShardNode.ticketIdPrefix(1).length());
+        
+        assertEquals(-1, router.exitVehicle(ShardNode.ticketIdPrefix(9) + sequence));
+        assertEquals(-1, router.exitVehicle("TKT-" + sequence));
+        assertEquals(-1, router.exitVehicle("Sx-TKT-" + sequence));
+        assertEquals(-1, router.exitVehicle(null));
+        // Right shard, but a ticket that shard never issued
+        assertEquals(-1, router.exitVehicle(ShardNode.ticketIdPrefix(2) + sequence));
+        assertEquals(1, shard1.getLot().getTotalAvailableSpots());
+        assertEquals(1, shard2.getLot().getTotalAvailableSpots());
+        assertTrue(router.exitVehicle(ticket.getTicketId()) >= 0);
+    }
+    
+    @Test
+    void shardIdIsParsedFromTicketPrefix() {
+        assertEquals(2, ShardNode.shardIdOf(ShardNode.ticketIdPrefix(2) + "7"));
+        assertEquals(12, ShardNode.shardIdOf("S12-TKT-1"));
+        assertEquals(-1, ShardNode.shardIdOf("S-TKT-1"));
+        assertEquals(-1, ShardNode.shardIdOf("SX-TKT-1"));
+        assertEquals(-1, ShardNode.shardIdOf("TKT-1"));
+        assertEquals(-1, ShardNode.shardIdOf(null));
+    }
+    
+    @Test
+    void gossipRoundUpdatesKnownAvailableSpots() {
+        assertEquals(3, router.getKnownAvailableSpots());
+        assertNotNull(shard1.parkVehicle(new Car("KA01AB0001")));
+        assertNotNull(shard2.parkVehicle(new Car("KA01AB0002")));
+        assertEquals(3, router.getKnownAvailableSpots());
+        
+        gossip.runRound();
+        assertEquals(1, router.getKnownAvailableSpots());
+        assertEquals(1, router.getSummary(1).getFree(SpotSize.MEDIUM));
+        assertEquals(0, router.getSummary(2).getFree(SpotSize.MEDIUM));
+    }
+    
+    @Test
+    void olderSummaryDoesNotReplaceNewerOne() {
+        FreeCountSummary stale = shard1.summarize();
+        assertNotNull(shard1.parkVehicle(new Car("KA01AB0001")));
+        gossip.runRound();
+        
+        router.acceptSummary(stale);
+        assertEquals(1, router.getSummary(1).getFree(SpotSize.MEDIUM));
+        assertEquals(2, router.getKnownAvailableSpots());
+    }
+    
+    @Test
+    void summaryCountsLargerSizesForSmallerVehicles() {
+        long[] free = new long[SpotSize.values().length];
+        free[SpotSize.SMALL.ordinal()] = 1;
+        free[SpotSize.MEDIUM.ordinal()] = 2;
+        free[SpotSize.LARGE.ordinal()] = 4;
+        FreeCountSummary summary = new FreeCountSummary(1, 1, free);
+        
+        assertEquals(7, summary.getFreeFor(SpotSize.SMALL));
+        assertEquals(6, summary.getFreeFor(SpotSize.MEDIUM));
+        assertEquals(5, summary.consumed(SpotSize.MEDIUM).getFreeFor(SpotSize.MEDIUM));
+        assertEquals(1, summary.exhausted(SpotSize.MEDIUM).getFreeFor(SpotSize.SMALL));
+        assertEquals(summary.getVersion(), summary.exhausted(SpotSize.MEDIUM).getVersion());
+    }
+}
@@ -0,0 +1,125 @@
+package com.airtribe.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FloorSpotIndexTest {
+    // More than 64 words, so the availability summary spans two summary words
+    private static final int SPOTS = 64 * 70;
+    
+    @Test
+    void searchSkipsEmptySummaryWords() {
+        FloorSpotIndex index = new FloorSpotIndex();
+        List<ParkingSpot> spots = addSpots(index, SPOTS, SpotSize.MEDIUM);
+        for (ParkingSpot spot : spots) {
+            spot.parkVehicle(new Car("KA01AB" + spot.getIndexOnFloor()));
+        }
+        SpotCriterion medium = SpotCriterion.of(SpotSize.MEDIUM);
+        assertNull(index.find(medium, 0));
+        
+        ParkingSpot last = spots.get(SPOTS - 1);
+        ParkingSpot middle = spots.get(64 * 65 + 3);
+        last.removeVehicle();
+        middle.removeVehicle();
+        
+        assertSame(middle, index.find(medium, 0));
+        assertSame(last, index.find(medium, middle.getIndexOnFloor() + 1));
+        assertNull(index.find(medium, SPOTS));
+        assertEquals(2, index.countAvailable(medium));
+    }
+    
+    @Test
+    void capabilityMasksAreRequiredAndExcluded() {
+        FloorSpotIndex index = new FloorSpotIndex();
+        ParkingSpot plain = addSpot(index, "plain", SpotSize.MEDIUM);
+        ParkingSpot charger = addSpot(index, "charger", SpotSize.MEDIUM, SpotCapability.CHARGER);
+        ParkingSpot large = addSpot(index, "large", SpotSize.LARGE, SpotCapability.CHARGER);
+        
+        assertSame(charger, index.find(SpotCriterion.of(SpotSize.MEDIUM, SpotCapability.CHARGER), 0));
+        assertSame(plain, index.find(SpotCriterion.of(SpotSize.MEDIUM), 0));
+        assertSame(charger, index.find(SpotCriterion.of(SpotSize.MEDIUM).excluding(SpotCapability.PERMIT_RESERVED),
+                plain.getIndexOnFloor() + 1));
+        assertNull(index.find(SpotCriterion.of(SpotSize.MEDIUM, SpotCapability.CHARGER)
+                .excluding(SpotCapability.CHARGER), 0));
+        assertSame(large, index.find(SpotCriterion.of(SpotSize.LARGE, SpotCapability.CHARGER), 0));
+    }
+    
+    @Test
+    void defaultQueryNeverOffersPermitReservedSpots() {
+        ParkingFloor floor = new ParkingFloor(1, null);
+        ParkingSpot reserved = new ParkingSpot("reserved", SpotSize.MEDIUM, 1, SpotCapability.PERMIT_RESERVED);
+        ParkingSpot open = new ParkingSpot("open", SpotSize.LARGE, 1);
+        floor.addSpot(reserved);
+        floor.addSpot(open);
+        Car car = new Car("KA01AB0001");
+        
+        assertSame(open, floor.findAvailableSpot(car, SpotQuery.forVehicle(car)));
+        open.parkVehicle(new Car("KA01AB0002"));
+        assertNull(floor.findAvailableSpot(car, SpotQuery.forVehicle(car)));
+        assertSame(reserved, floor.findAvailableSpot(car,
+                SpotQuery.of(SpotCriterion.of(SpotSize.MEDIUM, SpotCapability.PERMIT_RESERVED))));
+    }
+    
+    @Test
+    void queryCriteriaTheVehicleDoesNotFitAreSkipped() {
+        ParkingFloor floor = new ParkingFloor(1, null);
+        ParkingSpot small = new ParkingSpot("small", SpotSize.SMALL, 1);
+        ParkingSpot medium = new ParkingSpot("medium", SpotSize.MEDIUM, 1);
+        floor.addSpot(small);
+        floor.addSpot(medium);
+        SpotQuery smallThenMedium = SpotQuery.of(SpotCriterion.of(SpotSize.SMALL), SpotCriterion.of(SpotSize.MEDIUM));
+        
+        assertSame(medium, floor.findAvailableSpot(new Car("KA01AB0001"), smallThenMedium));
+        assertSame(small, floor.findAvailableSpot(new Motorcycle("KA01AB0002"), smallThenMedium));
+        medium.parkVehicle(new Car("KA01AB0003"));
+        assertNull(floor.findAvailableSpot(new Car("KA01AB0001"), smallThenMedium));
+    }
+    
+    @Test
+    void availableCountsFollowParkAndRemove() {
+        FloorSpotIndex index = new FloorSpotIndex();
+        List<ParkingSpot> medium = addSpots(index, 100, SpotSize.MEDIUM);
+        ParkingSpot charger = addSpot(index, "charger", SpotSize.MEDIUM, SpotCapability.CHARGER);
+        addSpots(index, 10, SpotSize.LARGE);
+        SpotCriterion withCharger = SpotCriterion.of(SpotSize.MEDIUM, SpotCapability.CHARGER);
+        assertEquals(101, index.countAvailable(SpotSize.MEDIUM));
+        assertEquals(111, index.countAvailable());
+        
+        for (int i = 0; i < 40; i++) {
+            medium.get(i).parkVehicle(new Car("KA01AB" + i));
+        }
+        charger.parkVehicle(new Car("KA01EV0001"));
+        assertEquals(60, index.countAvailable(SpotSize.MEDIUM));
+        assertEquals(0, index.countAvailable(withCharger));
+        assertEquals(60, index.countAvailable(SpotCriterion.of(SpotSize.MEDIUM)));
+        
+        // A second remove of the same spot must not count it twice
+        medium.get(0).removeVehicle();
+        medium.get(0).removeVehicle();
+        charger.removeVehicle();
+        assertEquals(62, index.countAvailable(SpotSize.MEDIUM));
+        assertEquals(1, index.countAvailable(withCharger));
+        assertEquals(10, index.countAvailable(SpotSize.LARGE));
+        assertEquals(101, index.countSpots(SpotSize.MEDIUM));
+    }
+    
+    private static List<ParkingSpot> addSpots(FloorSpotIndex index, int count, SpotSize size) {
+        List<ParkingSpot> spots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            spots.add(addSpot(index, size + "-" + i, size));
+        }
+        return spots;
+    }
+    
+    private static ParkingSpot addSpot(FloorSpotIndex index, String id, SpotSize size, SpotCapability... capabilities) {
+        ParkingSpot spot = new ParkingSpot(id, size, 1, capabilities);
+        spot.attach(index);
+        return spot;
+    }
+}
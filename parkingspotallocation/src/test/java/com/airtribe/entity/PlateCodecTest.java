@@ -0,0 +1,77 @@
+package com.airtribe.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlateCodecTest {
+    
+    @Test
+    void packablePlatesRoundTrip() {
+        String[] plates = {"KA01AB1234", "A", "0", "000", "-", "0-0", "ZZZZZZZZZZZZ", "------------", "999999999999"};
+        for (String plate : plates) {
+            long packed = PlateCodec.encode(plate);
+            assertTrue(packed > 0, plate);
+            assertEquals(plate, PlateCodec.decode(packed));
+        }
+        // Leading zero digits are kept, so these do not collide
+        assertNotEquals(PlateCodec.encode("0"), PlateCodec.encode("00"));
+    }
+    
+    @Test
+    void otherPlatesAreNotPackable() {
+        String[] plates = {null, "", "ka01ab1234", "KA 01", "KA01AB1234567", "M\u00DC-AB-12"};
+        for (String plate : plates) {
+            assertEquals(PlateCodec.NOT_PACKABLE, PlateCodec.encode(plate), plate);
+        }
+        assertThrows(IllegalArgumentException.class, () -> PlateCodec.decode(PlateCodec.NOT_PACKABLE));
+        assertThrows(IllegalArgumentException.class, () -> PlateCodec.decode(0));
+    }
+    
+    @Test
+    void vehicleKeepsUnpackablePlatesAsGiven() {
+        Car packed = new Car("KA01AB1234");
+        assertEquals("KA01AB1234", packed.getLicensePlate());
+        assertEquals(PlateCodec.encode("KA01AB1234"), packed.getPackedPlate());
+        
+        for (String plate : new String[] {"", "ka01ab1234", "M\u00DC-AB-12"}) {
+            Car car = new Car(plate);
+            assertEquals(PlateCodec.NOT_PACKABLE, car.getPackedPlate());
+            assertEquals(plate, car.getLicensePlate());
+            assertEquals("CAR [" + plate + "]", car.toString());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new Car(null));
+    }
+    
+    @Test
+    void registeredClassIdsAreStable() {
+        assertEquals(VehicleType.MOTORCYCLE.ordinal(), VehicleRegistry.MOTORCYCLE.getId());
+        assertEquals(VehicleType.CAR.ordinal(), VehicleRegistry.CAR.getId());
+        assertEquals(VehicleType.BUS.ordinal(), VehicleRegistry.BUS.getId());
+        
+        int before = VehicleRegistry.size();
+        VehicleClass ev = VehicleRegistry.register("PlateCodecTest-EV", SpotSize.MEDIUM, VehicleType.CAR,
+                SpotCapability.CHARGER);
+        assertEquals(before, ev.getId());
+        assertEquals(before + 1, VehicleRegistry.size());
+        assertSame(ev, VehicleRegistry.byId(ev.getId()));
+        assertSame(ev, VehicleRegistry.byName("PlateCodecTest-EV"));
+        // Registering a class leaves the IDs of existing classes alone
+        assertSame(VehicleRegistry.CAR, VehicleRegistry.forType(VehicleType.CAR));
+        assertThrows(IllegalArgumentException.class,
+                () -> VehicleRegistry.register("PlateCodecTest-EV", SpotSize.MEDIUM, VehicleType.CAR));
+        assertEquals(before + 1, VehicleRegistry.size());
+        assertThrows(IllegalArgumentException.class, () -> VehicleRegistry.byId(before + 1));
+        assertThrows(IllegalArgumentException.class, () -> VehicleRegistry.byId(-1));
+        
+        Vehicle vehicle = Vehicle.of("KA01EV0001", ev);
+        assertEquals(ev.getId(), vehicle.getClassId());
+        assertSame(ev, vehicle.getVehicleClass());
+        assertEquals(VehicleType.CAR, vehicle.getType());
+        assertEquals(VehicleRegistry.CAR.getSpotSizeMask(), vehicle.getSpotSizeMask());
+    }
+}
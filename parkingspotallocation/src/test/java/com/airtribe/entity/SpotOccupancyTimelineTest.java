@@ -0,0 +1,34 @@
+package com.airtribe.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpotOccupancyTimelineTest {
+    
+    @Test
+    void recordedStaysLandInTheirDaySlots() {
+        SpotOccupancyTimeline timeline = new SpotOccupancyTimeline(4, 3, ZoneOffset.UTC);
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        long start = yesterday.atTime(10, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+        
+        timeline.record(2, start, start + 59 * 60_000L);
+        timeline.record(3, start - 24 * 3_600_000L, start - 24 * 3_600_000L + 29 * 60_000L);
+        
+        assertEquals(60, timeline.occupiedMinutes(2, yesterday));
+        assertEquals(0, timeline.occupiedMinutes(2, yesterday.minusDays(1)));
+        assertEquals(30, timeline.occupiedMinutes(3, yesterday.minusDays(1)));
+    }
+    
+    @Test
+    void sizesBeyondOneArrayAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpotOccupancyTimeline(1_000_000, 10_000, ZoneOffset.UTC));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpotOccupancyTimeline(Integer.MAX_VALUE, Integer.MAX_VALUE, ZoneOffset.UTC));
+    }
+}
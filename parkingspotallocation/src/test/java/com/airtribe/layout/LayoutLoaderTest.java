@@ -0,0 +1,131 @@
+package com.airtribe.layout;
+
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.SpotCapability;
+import com.airtribe.entity.SpotSize;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LayoutLoaderTest {
+    private static final FileTime MODIFIED = FileTime.fromMillis(1_700_000_000_000L);
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    void csvIsParsedAndCachedAsImage() throws IOException {
+        Path csv = write("layout.csv", "floor,spotId,size,capabilities\r\n"
+                + "# ground floor\r\n"
+                + "1,F1-1,SMALL\r\n"
+                + "\r\n"
+                + "1,F1-2,MEDIUM,CHARGER|COVERED\r\n"
+                + "3,F3-1,LARGE,ACCESSIBLE\r\n");
+        
+        ParkingLayout layout = LayoutLoader.load(csv);
+        assertEquals(1, layout.getFirstFloorNumber());
+        assertEquals(3, layout.getFloorCount());
+        assertEquals(3, layout.getSpotCount());
+        assertEquals(List.of(), layout.getSpots(2));
+        ParkingSpot charger = layout.getSpots(1).get(1);
+        assertEquals("F1-2", charger.getSpotId());
+        assertEquals(SpotSize.MEDIUM, charger.getSize());
+        assertEquals(SpotCapability.CHARGER.mask() | SpotCapability.COVERED.mask(), charger.getCapabilityMask());
+        assertEquals(3, layout.getSpots(3).get(0).getFloorNumber());
+        
+        assertTrue(Files.exists(LayoutLoader.imagePathFor(csv)));
+        ParkingLayout image = LayoutLoader.readImage(LayoutLoader.imagePathFor(csv));
+        assertEquals(describe(layout), describe(image));
+    }
+    
+    @Test
+    void malformedRowsNameTheirLine() throws IOException {
+        assertRejected("1,F1-1,SMALL\n1,F1-2\n", ":2");
+        assertRejected("1,F1-1,SMALL\nx,F1-2,SMALL\n", ":2");
+        assertRejected("1,F1-1,SMALL\n0,F1-2,SMALL\n", ":2");
+        assertRejected("1,,SMALL\n", ":1");
+    }
+    
+    @Test
+    void unknownSizeOrCapabilityIsRejected() throws IOException {
+        assertRejected("1,F1-1,SMALL\n1,F1-2,HUGE\n", ":2");
+        assertRejected("1,F1-1,small\n", ":1");
+        assertRejected("1,F1-1,SMALL,CHARGER|JETPACK\n", ":1");
+    }
+    
+    @Test
+    void duplicateSpotIdIsRejected() throws IOException {
+        assertRejected("1,F1-1,SMALL\n1,F1-2,SMALL\n1,F1-1,MEDIUM\n", ":3");
+        // Also across floors, where rows are parsed separately
+        assertRejected("1,X-1,SMALL\n2,X-2,SMALL\n# comment\n2,X-1,SMALL\n", ":4");
+        assertFalse(Files.exists(LayoutLoader.imagePathFor(dir.resolve("rejected.csv"))));
+    }
+    
+    @Test
+    void cachedImageIsUsedOnlyWhileCsvIsUnchanged() throws IOException {
+        Path csv = write("layout.csv", "1,F1-1,SMALL\n");
+        Files.setLastModifiedTime(csv, MODIFIED);
+        assertEquals("F1-1", LayoutLoader.load(csv).getSpots(1).get(0).getSpotId());
+        
+        // Same size and modification time: the cached image answers, even though the content differs
+        Files.writeString(csv, "1,F1-2,SMALL\n");
+        Files.setLastModifiedTime(csv, MODIFIED);
+        assertEquals("F1-1", LayoutLoader.load(csv).getSpots(1).get(0).getSpotId());
+        
+        // Changed modification time: the CSV is parsed again and the image replaced
+        Files.setLastModifiedTime(csv, FileTime.fromMillis(MODIFIED.toMillis() + 1_000));
+        assertEquals("F1-2", LayoutLoader.load(csv).getSpots(1).get(0).getSpotId());
+        
+        // Changed size under the original modification time: parsed again
+        Files.writeString(csv, "1,F1-33,SMALL\n");
+        Files.setLastModifiedTime(csv, MODIFIED);
+        assertEquals("F1-33", LayoutLoader.load(csv).getSpots(1).get(0).getSpotId());
+        Files.writeString(csv, "1,F1-44,SMALL\n");
+        Files.setLastModifiedTime(csv, MODIFIED);
+        assertEquals("F1-33", LayoutLoader.load(csv).getSpots(1).get(0).getSpotId());
+    }
+    
+    @Test
+    void loadAcceptsAnImageDirectly() throws IOException {
+        Path csv = write("layout.csv", "2,F2-1,LARGE\n");
+        LayoutLoader.load(csv);
+        
+        ParkingLayout layout = LayoutLoader.load(LayoutLoader.imagePathFor(csv));
+        assertEquals(2, layout.getFirstFloorNumber());
+        assertEquals(SpotSize.LARGE, layout.getSpots(2).get(0).getSize());
+    }
+    
+    private void assertRejected(String content, String line) throws IOException {
+        Path csv = write("rejected.csv", content);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> LayoutLoader.load(csv));
+        assertTrue(e.getMessage().endsWith(csv + line), e.getMessage());
+    }
+    
+    private Path write(String name, String content) throws IOException {
+        Path csv = dir.resolve(name);
+        Files.writeString(csv, content);
+        return csv;
+    }
+    
+    private static String describe(ParkingLayout layout) {
+        StringBuilder description = new StringBuilder();
+        int lastFloor = layout.getFirstFloorNumber() + layout.getFloorCount() - 1;
+        for (int floor = layout.getFirstFloorNumber(); floor <= lastFloor; floor++) {
+            for (ParkingSpot spot : layout.getSpots(floor)) {
+                description.append(floor).append(',').append(spot.getSpotId()).append(',').append(spot.getSize())
+                        .append(',').append(spot.getCapabilityMask()).append('\n');
+            }
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.airtribe.replication;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.service.ParkingLot;
+import com.airtribe.service.TicketSlab;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicationTest {
+    private static final int SPOTS = 4;
+    
+    private ParkingLot primaryLot;
+    private ParkingLot standbyLot;
+    private ReplicationStandby standby;
+    private ReplicationPrimary primary;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        primaryLot = newLot();
+        standbyLot = newLot();
+        primaryLot.enableTicketSlab(SPOTS);
+        standby = new ReplicationStandby(standbyLot, 0);
+        standby.start();
+        primary = new ReplicationPrimary(primaryLot,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), standby.getPort()));
+        primary.start();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        primary.abort();
+        standby.close();
+    }
+    
+    @Test
+    void pooledTicketsAreReplicated() throws InterruptedException {
+        long first = primaryLot.parkVehicleHandle(new Car("KA01AB0001"));
+        long second = primaryLot.parkVehicleHandle(new Car("KA01AB0002"));
+        assertNotEquals(TicketSlab.NO_HANDLE, first);
+        assertNotEquals(TicketSlab.NO_HANDLE, second);
+        assertTrue(primaryLot.exitVehicleHandle(first) > 0);
+        
+        awaitApplied(3);
+        assertEquals(0, standby.getApplyErrors());
+        assertEquals(1, standbyLot.getActiveTickets().size());
+        assertEquals(primaryLot.getTotalAvailableSpots(), standbyLot.getTotalAvailableSpots());
+        String ticketId = ParkingTicket.formatTicketId(primaryLot.getTicketIdPrefix(), primaryLot.getTicketSlab().getSequence(second));
+        assertNotNull(standbyLot.getActiveTickets().get(ticketId));
+    }
+    
+    @Test
+    void closedPrimaryIsFencedAndStandbyTakesOver() throws InterruptedException {
+        assertNotNull(primaryLot.parkVehicle(new Car("KA01AB0001")));
+        primary.close();
+        
+        assertTrue(primaryLot.isFenced());
+        assertNull(primaryLot.parkVehicle(new Car("KA01AB0002")));
+        assertEquals(TicketSlab.NO_HANDLE, primaryLot.parkVehicleHandle(new Car("KA01AB0003")));
+        assertTrue(standby.awaitPromotion(5, TimeUnit.SECONDS));
+        assertEquals(1, standbyLot.getActiveTickets().size());
+        assertFalse(standbyLot.isFenced());
+        assertNotNull(standbyLot.parkVehicle(new Car("KA01AB0002")));
+    }
+    
+    private void awaitApplied(long records) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (standby.getRecordsApplied() + standby.getApplyErrors() < records && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+    
+    private static ParkingLot newLot() {
+        ParkingLot lot = ParkingLot.create("Replicated", 1, 1, "RP");
+        lot.setVerbose(false);
+        for (int i = 0; i < SPOTS; i++) {
+            lot.addParkingSpot(1, new ParkingSpot("F1-" + i, SpotSize.MEDIUM, 1));
+        }
+        return lot;
+    }
+}
@@ -0,0 +1,67 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.SpotCapability;
+import com.airtribe.entity.SpotCriterion;
+import com.airtribe.entity.SpotQuery;
+import com.airtribe.entity.SpotSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTest {
+    private ParkingLot lot;
+    private AdmissionController admission;
+    
+    @BeforeEach
+    void setUp() {
+        lot = ParkingLot.create("Admission", 1, 2, "AD");
+        lot.setVerbose(false);
+        lot.addParkingSpot(1, new ParkingSpot("F1-1", SpotSize.MEDIUM, 1));
+        lot.addParkingSpot(2, new ParkingSpot("F2-1", SpotSize.MEDIUM, 2, SpotCapability.PERMIT_RESERVED));
+        admission = new AdmissionController(lot, 2);
+        admission.registerGate("G0", 1000, 10);
+    }
+    
+    @Test
+    void freePermitReservedBayDoesNotKeepLotOpen() {
+        assertNotNull(admission.parkVehicle("G0", new Car("KA01AB0001")).getTicket());
+        
+        assertFalse(admission.hasRoomFor(new Car("KA01AB0002")));
+        assertEquals(AdmissionResult.Outcome.LOT_FULL, admission.parkVehicle("G0", new Car("KA01AB0002")).getOutcome());
+        assertEquals(1, lot.getTotalAvailableSpots());
+    }
+    
+    @Test
+    void queryThatAcceptsReservedBaysSeesThem() {
+        assertNotNull(admission.parkVehicle("G0", new Car("KA01AB0001")).getTicket());
+        SpotQuery permitHolder = SpotQuery.of(SpotCriterion.of(SpotSize.MEDIUM, SpotCapability.PERMIT_RESERVED));
+        
+        assertTrue(admission.hasRoomFor(new Car("KA01AB0002"), permitHolder));
+        AdmissionResult result = admission.parkVehicle("G0", new Car("KA01AB0002"), permitHolder,
+                AdmissionController.DEFAULT_BUDGET.toNanos());
+        assertEquals(AdmissionResult.Outcome.ADMITTED, result.getOutcome());
+    }
+    
+    @Test
+    void lowRateWithLargeBurstIsRejectedInsteadOfOverflowing() {
+        assertThrows(IllegalArgumentException.class, () -> new GateRateLimiter("G1", 1e-9, Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new GateRateLimiter("G1", Double.NaN, 1));
+    }
+    
+    @Test
+    void lowRateGateAllowsItsBurstThenLimits() {
+        GateRateLimiter limiter = new GateRateLimiter("G1", 0.001, 1000);
+        long now = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limiter.tryAcquire(now));
+        }
+        assertFalse(limiter.tryAcquire(now));
+    }
+}
@@ -0,0 +1,160 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingSpotStatus;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotCapability;
+import com.airtribe.entity.SpotCriterion;
+import com.airtribe.entity.SpotQuery;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.entity.Vehicle;
+import com.airtribe.strategy.HourlyFeeStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloorWorkerExecutorTest {
+    private static final int FLOORS = 3;
+    private static final int SPOTS_PER_FLOOR = 20;
+    
+    private ParkingLot lot;
+    
+    @BeforeEach
+    void setUp() {
+        lot = ParkingLot.create("Workers", 1, FLOORS, "FW");
+        lot.setVerbose(false);
+        for (int f = 1; f <= FLOORS; f++) {
+            for (int i = 0; i < SPOTS_PER_FLOOR; i++) {
+                lot.addParkingSpot(f, new ParkingSpot("F" + f + "-" + i, SpotSize.MEDIUM, f));
+            }
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        lot.stopFloorWorkers();
+    }
+    
+    @Test
+    void spotFreedAfterWorkersStartedIsHandedOut() {
+        List<ParkingTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < FLOORS * SPOTS_PER_FLOOR; i++) {
+            tickets.add(lot.parkVehicle(new Car("KA01AB" + (1000 + i))));
+        }
+        lot.startFloorWorkers();
+        assertNull(lot.parkVehicle(new Car("KA01ZZ0001")));
+        
+        // An exit applied outside the workers, e.g. a replicated one
+        ParkingTicket ticket = tickets.get(5);
+        ParkingSpot spot = ticket.getAssignedSpot();
+        assertNotNull(lot.restoreExited(spot.getFloorNumber(), spot.getIndexOnFloor(), ticket.getSequence(),
+                System.currentTimeMillis()));
+        
+        ParkingTicket next = lot.parkVehicle(new Car("KA01ZZ0002"));
+        assertNotNull(next);
+        assertSame(spot, next.getAssignedSpot());
+    }
+    
+    @Test
+    void stopDrainsQueuedAndForwardedRequests() {
+        FloorWorkerExecutor workers = lot.startFloorWorkers();
+        List<CompletableFuture<ParkingTicket>> parked = new ArrayList<>();
+        for (int i = 0; i < 2 * FLOORS * SPOTS_PER_FLOOR; i++) {
+            parked.add(workers.parkVehicle(new Car("KA01AB" + (1000 + i))));
+        }
+        lot.stopFloorWorkers();
+        
+        int tickets = 0;
+        for (CompletableFuture<ParkingTicket> future : parked) {
+            assertTrue(future.isDone());
+            assertFalse(future.isCompletedExceptionally());
+            if (future.join() != null) {
+                tickets++;
+            }
+        }
+        assertEquals(FLOORS * SPOTS_PER_FLOOR, tickets);
+        assertEquals(0, lot.getTotalAvailableSpots());
+    }
+    
+    @Test
+    void requestAfterStopFallsBackToLockBasedMode() {
+        FloorWorkerExecutor workers = lot.startFloorWorkers();
+        lot.stopFloorWorkers();
+        
+        assertTrue(workers.parkVehicle(new Car("KA01AB1000")).isCompletedExceptionally());
+        assertNotNull(lot.parkVehicle(new Car("KA01AB1000")));
+    }
+    
+    @Test
+    void workerFailuresMapToNullAndMinusOne() {
+        lot.startFloorWorkers();
+        ParkingTicket ticket = lot.parkVehicle(new Car("KA01AB1000"));
+        assertNotNull(ticket);
+        
+        lot.getFeeCalculator().setStrategy(new HourlyFeeStrategy() {
+            @Override
+            public double calculateFee(ParkingTicket t) {
+                throw new IllegalStateException("tariff service down");
+            }
+            
+            @Override
+            public double quoteHourlyRate(Vehicle vehicle, ParkingSpot spot, ParkingFloor floor) {
+                throw new IllegalStateException("tariff service down");
+            }
+        });
+        long free = lot.getTotalAvailableSpots();
+        assertNull(lot.parkVehicle(new Car("KA01AB1001")));
+        assertEquals(free, lot.getTotalAvailableSpots());
+        assertEquals(-1, lot.exitVehicle(ticket.getTicketId()));
+        assertSame(ticket, lot.getActiveTickets().get(ticket.getTicketId()));
+        assertEquals(ParkingSpotStatus.OCCUPIED, ticket.getAssignedSpot().getStatus());
+        
+        lot.getFeeCalculator().setStrategy(new HourlyFeeStrategy());
+        assertEquals(25.0, lot.exitVehicle(ticket.getTicketId()));
+    }
+    
+    @Test
+    void queryWithTooSmallFreeSpotReturnsNullWithoutSpinning() {
+        for (int i = 0; i < FLOORS * SPOTS_PER_FLOOR; i++) {
+            assertNotNull(lot.parkVehicle(new Car("KA01AB" + (1000 + i))));
+        }
+        lot.addParkingSpot(1, new ParkingSpot("F1-S1", SpotSize.SMALL, 1));
+        lot.startFloorWorkers();
+        SpotQuery smallThenMedium = SpotQuery.of(SpotCriterion.of(SpotSize.SMALL), SpotCriterion.of(SpotSize.MEDIUM));
+        
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertNull(lot.parkVehicle(new Car("KA01ZZ0001"), smallThenMedium));
+            lot.stopFloorWorkers();
+        });
+        assertEquals(1, lot.getTotalAvailableSpots());
+    }
+    
+    @Test
+    void queryIsRoutedToTheFloorThatMatchesIt() {
+        ParkingSpot charger = new ParkingSpot("F3-C1", SpotSize.MEDIUM, 3, SpotCapability.CHARGER);
+        lot.addParkingSpot(3, charger);
+        lot.startFloorWorkers();
+        SpotQuery chargerOnly = SpotQuery.of(SpotCriterion.of(SpotSize.MEDIUM, SpotCapability.CHARGER));
+        
+        ParkingTicket ticket = lot.parkVehicle(new Car("KA01ZZ0001"), chargerOnly);
+        assertNotNull(ticket);
+        assertSame(charger, ticket.getAssignedSpot());
+        assertNull(lot.parkVehicle(new Car("KA01ZZ0002"), chargerOnly));
+        assertEquals(FLOORS * SPOTS_PER_FLOOR, lot.getTotalAvailableSpots());
+    }
+}
@@ -0,0 +1,107 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class OverstaySweeperTest {
+    private static final long MINUTE = 60_000;
+    private static final long T0 = 1_700_000_040_000L; // a bucket boundary
+    private static final int TICKETS = 10;
+    
+    private ParkingLot lot;
+    private final List<ParkingTicket> tickets = new ArrayList<>();
+    private final List<SweepEvent> events = new ArrayList<>();
+    private OverstaySweeper sweeper;
+    
+    @BeforeEach
+    void setUp() {
+        lot = ParkingLot.create("Sweep", 1, 1, "SW");
+        lot.setVerbose(false);
+        for (int i = 0; i < 2 * TICKETS; i++) {
+            lot.addParkingSpot(1, new ParkingSpot("F1-" + i, SpotSize.MEDIUM, 1));
+        }
+        // One ticket per minute bucket, entered at T0, T0 + 1 min, ...
+        for (int i = 0; i < TICKETS; i++) {
+            tickets.add(lot.restoreParked(1, i, 1_000 + i, new Car("KA01AB" + (1000 + i)), T0 + i * MINUTE,
+                    Double.NaN, Double.NaN));
+        }
+        sweeper = new OverstaySweeper(lot, Duration.ofMinutes(10), Duration.ofMinutes(5), events::add);
+    }
+    
+    @Test
+    void overstayIsRaisedExactlyOncePerTicket() {
+        for (long now = T0; now <= T0 + 40 * MINUTE; now += MINUTE / 4) {
+            sweeper.sweep(now);
+        }
+        sweeper.sweep(T0 + 40 * MINUTE);
+        
+        Map<String, Integer> overstays = new HashMap<>();
+        for (SweepEvent event : events) {
+            assertEquals(SweepEvent.Type.OVERSTAY, event.getType());
+            overstays.merge(event.getTicket().getTicketId(), 1, Integer::sum);
+        }
+        assertEquals(TICKETS, overstays.size());
+        for (ParkingTicket ticket : tickets) {
+            assertEquals(1, overstays.get(ticket.getTicketId()), ticket.getTicketId());
+        }
+    }
+    
+    @Test
+    void vacatedSpotIsReportedAsAnomaly() {
+        ParkingTicket vacated = tickets.get(0);
+        // The spot was emptied without the ticket being settled
+        vacated.getAssignedSpot().removeVehicle();
+        
+        assertEquals(1, sweeper.sweep(T0 + 5 * MINUTE + 1));
+        assertEquals(SweepEvent.Type.ANOMALY, events.get(0).getType());
+        assertSame(vacated, events.get(0).getTicket());
+        
+        assertEquals(1, sweeper.sweep(T0 + 10 * MINUTE + 1));
+        assertEquals(SweepEvent.Type.ANOMALY, events.get(1).getType());
+        assertSame(vacated, events.get(1).getTicket());
+    }
+    
+    @Test
+    void settledTicketRaisesNothing() {
+        ParkingTicket settled = tickets.get(0);
+        lot.restoreExited(1, settled.getAssignedSpot().getIndexOnFloor(), settled.getSequence(), T0 + MINUTE);
+        
+        assertEquals(0, sweeper.sweep(T0 + 10 * MINUTE + 1));
+        assertEquals(List.of(), events);
+    }
+    
+    @Test
+    void sweepVisitsOnlyTicketsBetweenWatermarkAndCutoff() {
+        // Young tickets that no sweep below reaches
+        for (int i = 0; i < TICKETS; i++) {
+            lot.restoreParked(1, TICKETS + i, 2_000 + i, new Car("KA01ZZ" + (1000 + i)), T0 + 60 * MINUTE,
+                    Double.NaN, Double.NaN);
+        }
+        
+        // Audit cutoff T0 + 1 ms reaches the first ticket only; overstay reaches none yet
+        sweeper.sweep(T0 + 5 * MINUTE + 1);
+        assertEquals(1, sweeper.getVisitedInLastSweep());
+        sweeper.sweep(T0 + 5 * MINUTE + 1);
+        assertEquals(0, sweeper.getVisitedInLastSweep());
+        
+        // Audit advances five buckets, overstay reaches the first one
+        sweeper.sweep(T0 + 10 * MINUTE + 1);
+        assertEquals(5 + 1, sweeper.getVisitedInLastSweep());
+        sweeper.sweep(T0 + 11 * MINUTE + 1);
+        assertEquals(1 + 1, sweeper.getVisitedInLastSweep());
+        assertEquals(1 + 1, events.size());
+    }
+}
@@ -0,0 +1,56 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotCriterion;
+import com.airtribe.entity.SpotQuery;
+import com.airtribe.entity.SpotSize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpotQueryParkingTest {
+    private static final SpotQuery SMALL_THEN_MEDIUM =
+            SpotQuery.of(SpotCriterion.of(SpotSize.SMALL), SpotCriterion.of(SpotSize.MEDIUM));
+    
+    private ParkingLot lot;
+    private ParkingSpot medium;
+    
+    @BeforeEach
+    void setUp() {
+        lot = ParkingLot.create("Query", 1, 1, "QY");
+        lot.setVerbose(false);
+        lot.addParkingSpot(1, new ParkingSpot("F1-S1", SpotSize.SMALL, 1));
+        medium = new ParkingSpot("F1-M1", SpotSize.MEDIUM, 1);
+        lot.addParkingSpot(1, medium);
+    }
+    
+    @Test
+    void carSkipsSmallCriterionInLockMode() {
+        ParkingTicket ticket = lot.parkVehicle(new Car("KA01AB0001"), SMALL_THEN_MEDIUM);
+        
+        assertNotNull(ticket);
+        assertSame(medium, ticket.getAssignedSpot());
+        assertNull(lot.parkVehicle(new Car("KA01AB0002"), SMALL_THEN_MEDIUM));
+        assertEquals(1, lot.getTotalAvailableSpots());
+    }
+    
+    @Test
+    void admissionSeesNoRoomWhenOnlyTooSmallSpotsAreFree() {
+        AdmissionController admission = new AdmissionController(lot, 1);
+        admission.registerGate("G0", 1000, 10);
+        assertTrue(admission.hasRoomFor(new Car("KA01AB0001"), SMALL_THEN_MEDIUM));
+        assertNotNull(lot.parkVehicle(new Car("KA01AB0001"), SMALL_THEN_MEDIUM));
+        
+        assertFalse(admission.hasRoomFor(new Car("KA01AB0002"), SMALL_THEN_MEDIUM));
+        assertEquals(AdmissionResult.Outcome.LOT_FULL, admission.parkVehicle("G0", new Car("KA01AB0002"),
+                SMALL_THEN_MEDIUM, AdmissionController.DEFAULT_BUDGET.toNanos()).getOutcome());
+    }
+}
@@ -0,0 +1,54 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.strategy.HourlyFeeStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketSlabExitTest {
+    private ParkingLot lot;
+    private ParkingSpot spot;
+    
+    @BeforeEach
+    void setUp() {
+        lot = ParkingLot.create("Slab", 1, 1, "SL");
+        lot.setVerbose(false);
+        spot = new ParkingSpot("F1-1", SpotSize.MEDIUM, 1);
+        lot.addParkingSpot(1, spot);
+        lot.enableTicketSlab(4);
+    }
+    
+    @Test
+    void ticketOnlyStrategyPricesPooledTickets() {
+        lot.getFeeCalculator().setStrategy(ticket -> 7.0 * ticket.getParkingDurationInHours());
+        long handle = lot.parkVehicleHandle(new Car("KA01AB1234"));
+        
+        assertEquals(7.0, lot.exitVehicleHandle(handle));
+    }
+    
+    @Test
+    void failingStrategyLeavesTicketOpenAndSpotOccupied() {
+        long handle = lot.parkVehicleHandle(new Car("KA01AB1234"));
+        assertNotEquals(TicketSlab.NO_HANDLE, handle);
+        lot.getFeeCalculator().setStrategy(ticket -> {
+            throw new IllegalStateException("tariff service down");
+        });
+        
+        assertThrows(IllegalStateException.class, () -> lot.exitVehicleHandle(handle));
+        assertTrue(lot.getTicketSlab().isOpen(handle));
+        assertFalse(spot.isAvailable());
+        
+        lot.getFeeCalculator().setStrategy(new HourlyFeeStrategy());
+        assertEquals(25.0, lot.exitVehicleHandle(handle));
+        assertTrue(spot.isAvailable());
+        assertEquals(-1, lot.exitVehicleHandle(handle));
+    }
+}
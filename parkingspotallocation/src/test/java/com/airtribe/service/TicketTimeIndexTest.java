@@ -0,0 +1,81 @@
+package com.airtribe.service;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TicketTimeIndexTest {
+    private static final long MINUTE = 60_000;
+    private static final long T0 = 1_700_000_040_000L; // a bucket boundary
+    
+    @Test
+    void rangeVisitsOnlyTicketsEnteredInsideIt() {
+        TicketTimeIndex index = new TicketTimeIndex(MINUTE);
+        List<ParkingTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ParkingTicket ticket = ticketEnteredAt(i, T0 + i * MINUTE / 2);
+            tickets.add(ticket);
+            index.add(ticket);
+        }
+        assertEquals(3, index.getBucketCount());
+        
+        List<ParkingTicket> visited = new ArrayList<>();
+        // Edges fall inside buckets, so those tickets are filtered individually
+        index.forEachEnteredBetween(T0 + MINUTE / 2, T0 + 2 * MINUTE, visited::add);
+        assertEquals(tickets.subList(1, 4), sortedByEntry(visited));
+        
+        visited.clear();
+        index.forEachEnteredBetween(T0 + MINUTE, T0 + MINUTE, visited::add);
+        assertEquals(List.of(), visited);
+    }
+    
+    @Test
+    void pruningDropsEmptyBucketsAndLaterRemovalsDropTheRest() {
+        TicketTimeIndex index = new TicketTimeIndex(MINUTE);
+        ParkingTicket first = ticketEnteredAt(0, T0);
+        ParkingTicket second = ticketEnteredAt(1, T0 + MINUTE);
+        ParkingTicket third = ticketEnteredAt(2, T0 + 2 * MINUTE);
+        index.add(first);
+        index.add(second);
+        index.add(third);
+        index.remove(first);
+        assertEquals(3, index.getBucketCount());
+        
+        index.pruneBefore(T0 + 2 * MINUTE);
+        assertEquals(2, index.getBucketCount());
+        // The second bucket was passed while still occupied; its last ticket out drops it
+        index.remove(second);
+        assertEquals(1, index.getBucketCount());
+        assertEquals(1, index.size());
+        
+        // A bucket ahead of the pruning point stays until pruning reaches it
+        index.remove(third);
+        assertEquals(1, index.getBucketCount());
+        index.add(third);
+        assertEquals(1, index.size());
+    }
+    
+    @Test
+    void bucketWidthMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new TicketTimeIndex(0));
+    }
+    
+    private static ParkingTicket ticketEnteredAt(int n, long entryMillis) {
+        return ParkingTicket.restore("TT", 5_000 + n, new Car("KA01AB" + (1000 + n)),
+                new ParkingSpot("F1-" + n, SpotSize.MEDIUM, 1), entryMillis, Double.NaN, Double.NaN);
+    }
+    
+    private static List<ParkingTicket> sortedByEntry(List<ParkingTicket> tickets) {
+        List<ParkingTicket> sorted = new ArrayList<>(tickets);
+        sorted.sort((a, b) -> Long.compare(a.getEntryEpochMillis(), b.getEntryEpochMillis()));
+        return sorted;
+    }
+}
@@ -0,0 +1,79 @@
+package com.airtribe.strategy;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.entity.VehicleType;
+import com.airtribe.service.ParkingLot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OccupancyPricingStrategyTest {
+    private static final Tariff ENTRY_TARIFF = flatTariff(5.0, 20.0);
+    private static final Tariff EXIT_TARIFF = flatTariff(100.0, 1000.0);
+    
+    private ParkingLot lot;
+    private OccupancyPricingStrategy pricing;
+    
+    @BeforeEach
+    void setUp() {
+        lot = ParkingLot.create("Pricing", 1, 1, "PR");
+        lot.setVerbose(false);
+        lot.addParkingSpot(1, new ParkingSpot("F1-1", SpotSize.MEDIUM, 1));
+        pricing = new OccupancyPricingStrategy(ENTRY_TARIFF);
+        lot.getFeeCalculator().setStrategy(pricing);
+    }
+    
+    @Test
+    void ticketKeepsEntryPricesAfterTariffSwap() {
+        ParkingTicket ticket = lot.parkVehicle(new Car("KA01AB1234"));
+        pricing.setTariff(EXIT_TARIFF);
+        
+        assertEquals(5.0, ticket.getQuotedBaseFee());
+        // Short stays bill one hour
+        assertEquals(5.0 + 20.0, lot.exitVehicle(ticket.getTicketId()));
+    }
+    
+    @Test
+    void pooledTicketKeepsEntryPricesAfterTariffSwap() {
+        lot.enableTicketSlab(4);
+        long handle = lot.parkVehicleHandle(new Car("KA01AB1234"));
+        pricing.setTariff(EXIT_TARIFF);
+        
+        assertEquals(5.0 + 20.0, lot.exitVehicleHandle(handle));
+    }
+    
+    @Test
+    void ticketWithoutQuoteIsPricedAtExit() {
+        lot.getFeeCalculator().setStrategy(new HourlyFeeStrategy());
+        ParkingTicket ticket = lot.parkVehicle(new Car("KA01AB1234"));
+        lot.getFeeCalculator().setStrategy(pricing);
+        pricing.setTariff(EXIT_TARIFF);
+        
+        assertEquals(100.0 + 1000.0, lot.exitVehicle(ticket.getTicketId()));
+    }
+    
+    @Test
+    void entryQuoteCountsTheEnteringVehicle() {
+        lot.addParkingSpot(1, new ParkingSpot("F1-2", SpotSize.MEDIUM, 1));
+        // Car rate 20, doubling from an empty to a full floor
+        PriceCurve doubling = PriceCurve.linear(new double[] {0.0, 1.0}, new double[] {1.0, 2.0});
+        pricing.setTariff(new Tariff(0.0,
+                Map.of(VehicleType.MOTORCYCLE, 10.0, VehicleType.CAR, 20.0, VehicleType.BUS, 40.0),
+                Map.of(SpotSize.MEDIUM, doubling)));
+        
+        assertEquals(30.0, lot.parkVehicle(new Car("KA01AB0001")).getQuotedHourlyRate());
+        assertEquals(40.0, lot.parkVehicle(new Car("KA01AB0002")).getQuotedHourlyRate());
+    }
+    
+    private static Tariff flatTariff(double baseFee, double carRate) {
+        return new Tariff(baseFee,
+                Map.of(VehicleType.MOTORCYCLE, carRate / 2, VehicleType.CAR, carRate, VehicleType.BUS, carRate * 2),
+                Map.of());
+    }
+}
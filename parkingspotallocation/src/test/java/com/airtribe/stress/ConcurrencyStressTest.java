@@ -0,0 +1,30 @@
+package com.airtribe.stress;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the stress suite as part of the build, at sizes that finish in seconds.
+ * The mains in this package run the same checks at full size.
+ */
+class ConcurrencyStressTest {
+    
+    @Test
+    void lockBasedLotIsLinearizableAndKeepsInvariants() throws InterruptedException {
+        ParkingLotStressHarness harness = new ParkingLotStressHarness(8, 200_000, 4, 250, 42);
+        assertTrue(harness.run(), "stress run found violations, see report above");
+    }
+    
+    @Test
+    void floorWorkerLotIsLinearizableAndKeepsInvariants() throws InterruptedException {
+        ParkingLotStressHarness harness = new ParkingLotStressHarness(8, 200_000, 4, 250, 43);
+        harness.setFloorWorkers(true);
+        assertTrue(harness.run(), "stress run found violations, see report above");
+    }
+    
+    @Test
+    void spotStateTransitionsOnlyProduceAcceptableOutcomes() throws Exception {
+        assertTrue(ParkingSpotStateStress.runAll(20, 1000), "forbidden outcome, see table above");
+    }
+}
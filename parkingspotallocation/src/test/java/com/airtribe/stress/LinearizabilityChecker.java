@@ -0,0 +1,228 @@
+package com.airtribe.stress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks recorded park/exit/availability histories against the sequential
+ * specification of a parking lot.
+ * 
+ * Parks and exits are checked per spot: successful operations on one spot must
+ * admit an order park(t1), exit(t1), park(t2), exit(t2), ... with each operation's
+ * linearization point inside its [invoked, responded] interval. Because an exit
+ * is only invoked after its park returned, ordering tickets by park response time
+ * is exact, and a greedy assignment of linearization points decides the spot.
+ * 
+ * Availability counts are not read atomically, so they are checked against the
+ * occupancy bounds implied by operations that overlap or precede the read.
+ */
+public final class LinearizabilityChecker {
+    private static final int MAX_REPORTED = 20;
+    
+    private final List<String> violations = new ArrayList<>();
+    private long violationCount;
+    
+    public List<String> getViolations() {
+        return violations;
+    }
+    
+    public long getViolationCount() {
+        return violationCount;
+    }
+    
+    /**
+     * Checks the histories of one run against a lot that started empty.
+     * 
+     * @return true if no violation was found
+     */
+    public boolean check(List<OperationHistory> histories, long totalSpots) {
+        long minSequence = Long.MAX_VALUE;
+        long maxSequence = Long.MIN_VALUE;
+        for (OperationHistory history : histories) {
+            for (int i = 0; i < history.size(); i++) {
+                if (history.type(i) == OperationHistory.PARK && history.result(i) == 1) {
+                    minSequence = Math.min(minSequence, history.ticketSequence(i));
+                    maxSequence = Math.max(maxSequence, history.ticketSequence(i));
+                }
+            }
+        }
+        if (minSequence == Long.MAX_VALUE) {
+            return true;
+        }
+        
+        int tickets = (int) (maxSequence - minSequence + 1);
+        boolean[] parked = new boolean[tickets];
+        long[] parkInvoked = new long[tickets];
+        long[] parkResponded = new long[tickets];
+        int[] parkSpot = new int[tickets];
+        int[] exits = new int[tickets];
+        long[] exitInvoked = new long[tickets];
+        long[] exitResponded = new long[tickets];
+        
+        for (OperationHistory history : histories) {
+            for (int i = 0; i < history.size(); i++) {
+                if (history.result(i) != 1) {
+                    continue;
+                }
+                if (history.type(i) == OperationHistory.PARK) {
+                    int t = (int) (history.ticketSequence(i) - minSequence);
+                    parked[t] = true;
+                    parkInvoked[t] = history.invokedAt(i);
+                    parkResponded[t] = history.respondedAt(i);
+                    parkSpot[t] = history.spotKey(i);
+                } else if (history.type(i) == OperationHistory.EXIT) {
+                    int t = (int) (history.ticketSequence(i) - minSequence);
+                    exits[t]++;
+                    exitInvoked[t] = history.invokedAt(i);
+                    exitResponded[t] = history.respondedAt(i);
+                }
+            }
+        }
+        
+        checkTickets(parked, exits, minSequence);
+        checkSpots(parked, parkInvoked, parkResponded, parkSpot, exits, exitInvoked, exitResponded, minSequence);
+        checkRejectedExits(histories, parked, exits, exitInvoked, minSequence, maxSequence);
+        checkAvailability(histories, parked, parkInvoked, parkResponded, exits, exitInvoked, exitResponded, totalSpots);
+        return violationCount == 0;
+    }
+    
+    private void checkTickets(boolean[] parked, int[] exits, long minSequence) {
+        for (int t = 0; t < exits.length; t++) {
+            if (exits[t] > 1) {
+                report("ticket #" + (minSequence + t) + " was exited " + exits[t] + " times");
+            }
+            if (exits[t] > 0 && !parked[t]) {
+                report("ticket #" + (minSequence + t) + " was exited but never issued");
+            }
+        }
+    }
+    
+    private void checkSpots(boolean[] parked, long[] parkInvoked, long[] parkResponded, int[] parkSpot,
+                            int[] exits, long[] exitInvoked, long[] exitResponded, long minSequence) {
+        Integer[] order = new Integer[parked.length];
+        int count = 0;
+        for (int t = 0; t < parked.length; t++) {
+            if (parked[t]) {
+                order[count++] = t;
+            }
+        }
+        order = Arrays.copyOf(order, count);
+        Arrays.sort(order, Comparator.<Integer>comparingInt(t -> parkSpot[t]).thenComparingLong(t -> parkResponded[t]));
+        
+        int previous = -1;
+        long point = Long.MIN_VALUE;
+        for (int t : order) {
+            if (previous < 0 || parkSpot[previous] != parkSpot[t]) {
+                previous = -1;
+                point = Long.MIN_VALUE;
+            }
+            if (previous >= 0 && exits[previous] == 0) {
+                report("spot " + describeSpot(parkSpot[t]) + " issued ticket #" + (minSequence + t)
+                        + " while ticket #" + (minSequence + previous) + " was still active");
+            }
+            point = Math.max(point, parkInvoked[t]);
+            if (point > parkResponded[t]) {
+                report("spot " + describeSpot(parkSpot[t]) + " issued ticket #" + (minSequence + t)
+                        + " before the previous vehicle had left");
+            }
+            if (exits[t] > 0) {
+                point = Math.max(point, exitInvoked[t]);
+                if (point > exitResponded[t]) {
+                    report("exit of ticket #" + (minSequence + t) + " cannot be ordered on spot "
+                            + describeSpot(parkSpot[t]));
+                }
+            }
+            previous = t;
+        }
+    }
+    
+    private void checkRejectedExits(List<OperationHistory> histories, boolean[] parked, int[] exits,
+                                    long[] exitInvoked, long minSequence, long maxSequence) {
+        for (OperationHistory history : histories) {
+            for (int i = 0; i < history.size(); i++) {
+                if (history.type(i) != OperationHistory.EXIT || history.result(i) == 1) {
+                    continue;
+                }
+                long sequence = history.ticketSequence(i);
+                if (sequence < minSequence || sequence > maxSequence) {
+                    continue;
+                }
+                int t = (int) (sequence - minSequence);
+                // A valid ticket may only be rejected once another exit of it could have taken effect
+                if (parked[t] && (exits[t] == 0 || exitInvoked[t] > history.respondedAt(i))) {
+                    report("valid ticket #" + sequence + " was rejected at exit");
+                }
+            }
+        }
+    }
+    
+    private void checkAvailability(List<OperationHistory> histories, boolean[] parked, long[] parkInvoked,
+                                   long[] parkResponded, int[] exits, long[] exitInvoked,
+                                   long[] exitResponded, long totalSpots) {
+        long[] parkInvokedSorted = collect(parked, parkInvoked, null);
+        long[] parkRespondedSorted = collect(parked, parkResponded, null);
+        long[] exitInvokedSorted = collect(null, exitInvoked, exits);
+        long[] exitRespondedSorted = collect(null, exitResponded, exits);
+        
+        for (OperationHistory history : histories) {
+            for (int i = 0; i < history.size(); i++) {
+                if (history.type(i) != OperationHistory.AVAILABILITY) {
+                    continue;
+                }
+                long invoked = history.invokedAt(i);
+                long responded = history.respondedAt(i);
+                long occupied = totalSpots - history.result(i);
+                // Spots certainly occupied for the whole read, and spots possibly occupied at some point of it
+                long lower = countBefore(parkRespondedSorted, invoked) - countBefore(exitInvokedSorted, responded);
+                long upper = countBefore(parkInvokedSorted, responded) - countBefore(exitRespondedSorted, invoked);
+                if (occupied < lower || occupied > upper) {
+                    report("availability read saw " + occupied + " occupied spots, expected between "
+                            + lower + " and " + upper);
+                }
+            }
+        }
+    }
+    
+    private static long[] collect(boolean[] present, long[] times, int[] counts) {
+        long[] result = new long[times.length];
+        int size = 0;
+        for (int t = 0; t < times.length; t++) {
+            if ((present != null && present[t]) || (counts != null && counts[t] > 0)) {
+                result[size++] = times[t];
+            }
+        }
+        result = Arrays.copyOf(result, size);
+        Arrays.sort(result);
+        return result;
+    }
+    
+    /**
+     * Number of sorted timestamps strictly before the given time.
+     */
+    private static long countBefore(long[] sorted, long time) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private static String describeSpot(int spotKey) {
+        return "F" + (spotKey >>> 20) + "#" + (spotKey & 0xFFFFF);
+    }
+    
+    private void report(String violation) {
+        violationCount++;
+        if (violations.size() < MAX_REPORTED) {
+            violations.add(violation);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.airtribe.stress;
+
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingSpotStatus;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.service.ParkingLot;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invariants of a quiescent parking lot (no operation in flight):
+ * - no spot holds two active tickets
+ * - every active ticket's spot is occupied by the ticket's vehicle
+ * - every occupied spot belongs to an active ticket (no lost spots)
+ * - free counts reported by each floor match the spot states
+ */
+public final class LotInvariants {
+    
+    private LotInvariants() {
+    }
+    
+    /**
+     * Returns a description of every broken invariant; empty if the lot is consistent.
+     */
+    public static List<String> check(ParkingLot lot) {
+        List<String> violations = new ArrayList<>();
+        Map<ParkingSpot, ParkingTicket> ticketBySpot = new IdentityHashMap<>();
+        
+        for (ParkingTicket ticket : lot.getActiveTickets().values()) {
+            ParkingSpot spot = ticket.getAssignedSpot();
+            ParkingTicket other = ticketBySpot.put(spot, ticket);
+            if (other != null) {
+                violations.add("Spot " + spot.getSpotId() + " holds tickets " + other.getTicketId()
+                        + " and " + ticket.getTicketId());
+            }
+            if (spot.getStatus() != ParkingSpotStatus.OCCUPIED || spot.getParkedVehicle() != ticket.getVehicle()) {
+                violations.add("Ticket " + ticket.getTicketId() + " points at " + spot
+                        + " which does not hold " + ticket.getVehicle());
+            }
+        }
+        
+        for (ParkingFloor floor : lot.getFloors()) {
+            long available = 0;
+            long[] availableBySize = new long[SpotSize.values().length];
+            for (ParkingSpot spot : floor.getSpots()) {
+                if (spot.isAvailable()) {
+                    available++;
+                    availableBySize[spot.getSize().ordinal()]++;
+                } else if (!ticketBySpot.containsKey(spot)) {
+                    violations.add("Spot " + spot.getSpotId() + " is " + spot.getStatus() + " without an active ticket");
+                }
+            }
+            if (floor.getAvailableSpotCount() != available) {
+                violations.add("Floor " + floor.getFloorNumber() + " reports " + floor.getAvailableSpotCount()
+                        + " free spots, actual " + available);
+            }
+            for (SpotSize size : SpotSize.values()) {
+                if (floor.getAvailableSpotCountBySize(size) != availableBySize[size.ordinal()]) {
+                    violations.add("Floor " + floor.getFloorNumber() + " reports "
+                            + floor.getAvailableSpotCountBySize(size) + " free " + size + " spots, actual "
+                            + availableBySize[size.ordinal()]);
+                }
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,100 @@
+package com.airtribe.stress;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread record of completed operations for the linearizability checker.
+ * Stored as parallel primitive arrays so recording millions of operations
+ * does not disturb the run with allocation. Single writer: one history per thread.
+ */
+public final class OperationHistory {
+    public static final byte PARK = 0;
+    public static final byte EXIT = 1;
+    public static final byte AVAILABILITY = 2;
+    
+    private byte[] types;
+    private long[] invokedAt;
+    private long[] respondedAt;
+    private int[] spotKeys;
+    private long[] ticketSequences;
+    private long[] results;
+    private int size;
+    
+    public OperationHistory(int expectedOperations) {
+        int capacity = Math.max(16, expectedOperations);
+        this.types = new byte[capacity];
+        this.invokedAt = new long[capacity];
+        this.respondedAt = new long[capacity];
+        this.spotKeys = new int[capacity];
+        this.ticketSequences = new long[capacity];
+        this.results = new long[capacity];
+    }
+    
+    /**
+     * Records one completed operation.
+     * 
+     * @param type PARK, EXIT or AVAILABILITY
+     * @param invoked System.nanoTime() before the call
+     * @param responded System.nanoTime() after the call
+     * @param spotKey Spot the operation touched (see spotKey), or -1
+     * @param ticketSequence Ticket the operation issued or consumed, or -1
+     * @param result 1/0 for success/failure of PARK and EXIT, the returned count for AVAILABILITY
+     */
+    public void record(byte type, long invoked, long responded, int spotKey, long ticketSequence, long result) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type;
+        invokedAt[size] = invoked;
+        respondedAt[size] = responded;
+        spotKeys[size] = spotKey;
+        ticketSequences[size] = ticketSequence;
+        results[size] = result;
+        size++;
+    }
+    
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        invokedAt = Arrays.copyOf(invokedAt, capacity);
+        respondedAt = Arrays.copyOf(respondedAt, capacity);
+        spotKeys = Arrays.copyOf(spotKeys, capacity);
+        ticketSequences = Arrays.copyOf(ticketSequences, capacity);
+        results = Arrays.copyOf(results, capacity);
+    }
+    
+    /**
+     * Identifies a spot across floors by floor number and position on the floor.
+     */
+    public static int spotKey(int floorNumber, int indexOnFloor) {
+        return (floorNumber << 20) | indexOnFloor;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public byte type(int i) {
+        return types[i];
+    }
+    
+    public long invokedAt(int i) {
+        return invokedAt[i];
+    }
+    
+    public long respondedAt(int i) {
+        return respondedAt[i];
+    }
+    
+    public int spotKey(int i) {
+        return spotKeys[i];
+    }
+    
+    public long ticketSequence(int i) {
+        return ticketSequences[i];
+    }
+    
+    public long result(int i) {
+        return results[i];
+    }
+}
@@ -0,0 +1,225 @@
+package com.airtribe.stress;
+
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.ParkingTicket;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.entity.Vehicle;
+import com.airtribe.entity.VehicleRegistry;
+import com.airtribe.service.ParkingLot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Concurrency stress harness for ParkingLot.
+ * Runs a large number of mixed park/exit/availability operations from many
+ * threads against a fresh lot, records every operation, then:
+ * - checks the recorded histories with LinearizabilityChecker
+ * - checks quiescent lot invariants with LotInvariants
+ * - drains the lot and checks that every spot is free again
+ * 
+ * Each thread draws its operations from its own seeded Random, so the operation
+ * mix is reproducible; only the interleaving varies between runs.
+ * 
+ * Usage: ParkingLotStressHarness [threads=8] [operations=2000000] [floors=4]
+ *        [spotsPerFloor=250] [seed=42] [floorWorkers=false]
+ * Exits with status 1 if any violation is found.
+ */
+public class ParkingLotStressHarness {
+    private static final int FLEET_SIZE_PER_THREAD = 1024;
+    private static final int PARK_PERCENT = 45;
+    private static final int EXIT_PERCENT = 40;
+    private static final int DUPLICATE_EXIT_PERCENT = 1;
+    
+    private final int threads;
+    private final int operations;
+    private final int floors;
+    private final int spotsPerFloor;
+    private final long seed;
+    private boolean floorWorkers;
+    
+    public ParkingLotStressHarness(int threads, int operations, int floors, int spotsPerFloor, long seed) {
+        this.threads = threads;
+        this.operations = operations;
+        this.floors = floors;
+        this.spotsPerFloor = spotsPerFloor;
+        this.seed = seed;
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        ParkingLotStressHarness harness = new ParkingLotStressHarness(
+                Integer.parseInt(options.getOrDefault("threads", "8")),
+                Integer.parseInt(options.getOrDefault("operations", "2000000")),
+                Integer.parseInt(options.getOrDefault("floors", "4")),
+                Integer.parseInt(options.getOrDefault("spotsPerFloor", "250")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        harness.setFloorWorkers(Boolean.parseBoolean(options.getOrDefault("floorWorkers", "false")));
+        System.exit(harness.run() ? 0 : 1);
+    }
+    
+    /**
+     * Runs the operations against the lot in floor-worker mode instead of the lock-based mode.
+     */
+    public void setFloorWorkers(boolean floorWorkers) {
+        this.floorWorkers = floorWorkers;
+    }
+    
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        return options;
+    }
+    
+    /**
+     * Runs the stress test and prints a report.
+     * 
+     * @return true if no violation was found
+     */
+    public boolean run() throws InterruptedException {
+        ParkingLot lot = ParkingLot.create("Stress Lot", 1, floors, ParkingTicket.DEFAULT_TICKET_ID_PREFIX);
+        lot.setVerbose(false);
+        buildLayout(lot);
+        if (floorWorkers) {
+            lot.startFloorWorkers();
+        }
+        long totalSpots = lot.getTotalSpots();
+        
+        ConcurrentLinkedQueue<ParkingTicket> issuedTickets = new ConcurrentLinkedQueue<>();
+        List<OperationHistory> histories = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        int operationsPerThread = operations / threads;
+        
+        for (int t = 0; t < threads; t++) {
+            OperationHistory history = new OperationHistory(operationsPerThread);
+            histories.add(history);
+            Random random = new Random(seed + t);
+            Vehicle[] fleet = buildFleet(t, random);
+            Thread worker = new Thread(() -> {
+                awaitQuietly(start);
+                runOperations(lot, operationsPerThread, random, fleet, issuedTickets, history);
+            }, "stress-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - started;
+        
+        LinearizabilityChecker checker = new LinearizabilityChecker();
+        boolean linearizable = checker.check(histories, totalSpots);
+        List<String> invariantViolations = LotInvariants.check(lot);
+        long leftover = drain(lot, issuedTickets);
+        boolean drained = lot.getTotalAvailableSpots() == totalSpots && lot.getActiveTickets().isEmpty();
+        lot.stopFloorWorkers();
+        
+        System.out.println("Stress run: " + threads + " threads, " + operationsPerThread * threads
+                + " operations, " + totalSpots + " spots" + (floorWorkers ? ", floor workers" : ""));
+        System.out.printf("  Throughput: %.0f ops/s%n", operationsPerThread * threads / (elapsed / 1e9));
+        System.out.println("  Tickets still active at end: " + leftover);
+        System.out.println("  Linearizability violations: " + checker.getViolationCount());
+        checker.getViolations().forEach(v -> System.out.println("    " + v));
+        System.out.println("  Invariant violations: " + invariantViolations.size());
+        invariantViolations.forEach(v -> System.out.println("    " + v));
+        System.out.println("  Lot fully free after drain: " + drained);
+        
+        return linearizable && invariantViolations.isEmpty() && drained;
+    }
+    
+    private void buildLayout(ParkingLot lot) {
+        for (int floor = 1; floor <= floors; floor++) {
+            for (int i = 0; i < spotsPerFloor; i++) {
+                // 30% small, 50% medium, 20% large
+                int bucket = i % 10;
+                SpotSize size = bucket < 3 ? SpotSize.SMALL : bucket < 8 ? SpotSize.MEDIUM : SpotSize.LARGE;
+                lot.addParkingSpot(floor, new ParkingSpot("F" + floor + "-" + i, size, floor));
+            }
+        }
+    }
+    
+    private static Vehicle[] buildFleet(int thread, Random random) {
+        Vehicle[] fleet = new Vehicle[FLEET_SIZE_PER_THREAD];
+        for (int i = 0; i < fleet.length; i++) {
+            int kind = random.nextInt(10);
+            fleet[i] = Vehicle.of("ST-" + thread + "-" + i,
+                    kind < 3 ? VehicleRegistry.MOTORCYCLE : kind < 9 ? VehicleRegistry.CAR : VehicleRegistry.BUS);
+        }
+        return fleet;
+    }
+    
+    private static void runOperations(ParkingLot lot, int count, Random random, Vehicle[] fleet,
+                                      ConcurrentLinkedQueue<ParkingTicket> issuedTickets, OperationHistory history) {
+        for (int op = 0; op < count; op++) {
+            int roll = random.nextInt(100);
+            if (roll < PARK_PERCENT) {
+                Vehicle vehicle = fleet[random.nextInt(fleet.length)];
+                long invoked = System.nanoTime();
+                ParkingTicket ticket = lot.parkVehicle(vehicle);
+                long responded = System.nanoTime();
+                if (ticket != null) {
+                    history.record(OperationHistory.PARK, invoked, responded, spotKey(ticket), ticket.getSequence(), 1);
+                    issuedTickets.offer(ticket);
+                } else {
+                    history.record(OperationHistory.PARK, invoked, responded, -1, -1, 0);
+                }
+                continue;
+            }
+            
+            ParkingTicket ticket = roll < PARK_PERCENT + EXIT_PERCENT ? issuedTickets.poll() : null;
+            if (ticket != null) {
+                if (random.nextInt(100) < DUPLICATE_EXIT_PERCENT) {
+                    // Let another thread present the same ticket again; only one exit may succeed
+                    issuedTickets.offer(ticket);
+                }
+                long invoked = System.nanoTime();
+                double fee = lot.exitVehicle(ticket.getTicketId());
+                long responded = System.nanoTime();
+                history.record(OperationHistory.EXIT, invoked, responded, spotKey(ticket), ticket.getSequence(),
+                        fee >= 0 ? 1 : 0);
+            } else {
+                long invoked = System.nanoTime();
+                long available = lot.getTotalAvailableSpots();
+                long responded = System.nanoTime();
+                history.record(OperationHistory.AVAILABILITY, invoked, responded, -1, -1, available);
+            }
+        }
+    }
+    
+    private static int spotKey(ParkingTicket ticket) {
+        ParkingSpot spot = ticket.getAssignedSpot();
+        return OperationHistory.spotKey(spot.getFloorNumber(), spot.getIndexOnFloor());
+    }
+    
+    private static long drain(ParkingLot lot, ConcurrentLinkedQueue<ParkingTicket> issuedTickets) {
+        long active = lot.getActiveTickets().size();
+        for (ParkingTicket ticket : lot.getActiveTickets().values()) {
+            lot.exitVehicle(ticket.getTicketId());
+        }
+        issuedTickets.clear();
+        return active;
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.airtribe.stress;
+
+import com.airtribe.entity.Car;
+import com.airtribe.entity.ParkingFloor;
+import com.airtribe.entity.ParkingSpot;
+import com.airtribe.entity.SpotSize;
+import com.airtribe.entity.Vehicle;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * jcstress-style tests for ParkingSpot state transitions.
+ * Each scenario races two actors on a fresh spot (attached to its own floor),
+ * repeated over many batches; an arbiter then turns the final state into an
+ * outcome string. Outcomes are tallied and any outcome outside the scenario's
+ * acceptable set fails the run.
+ * 
+ * Usage: ParkingSpotStateStress [batches=200] [batchSize=1000]
+ */
+public class ParkingSpotStateStress {
+    
+    /**
+     * One racing scenario: two actors and an arbiter over a shared state.
+     */
+    private abstract static class Scenario {
+        final String name;
+        final Set<String> acceptable;
+        
+        Scenario(String name, Set<String> acceptable) {
+            this.name = name;
+            this.acceptable = acceptable;
+        }
+        
+        /**
+         * Builds a fresh floor holding the single spot the actors race on.
+         */
+        ParkingFloor newFloor() {
+            ParkingFloor floor = new ParkingFloor(1, null);
+            floor.addSpot(new ParkingSpot("F1-M1", SpotSize.MEDIUM, 1));
+            return floor;
+        }
+        
+        abstract String actor1(ParkingSpot spot, Vehicle vehicle);
+        
+        abstract String actor2(ParkingSpot spot, Vehicle vehicle);
+        
+        /**
+         * Final-state part of the outcome; also checks the floor's bitset agrees with the spot.
+         */
+        String arbiter(ParkingSpot spot, ParkingFloor floor) {
+            boolean indexed = floor.getAvailableSpotCount() == (spot.isAvailable() ? 1 : 0);
+            return spot.getStatus() + (indexed ? "" : " (floor index out of sync)");
+        }
+    }
+    
+    private static final Scenario[] SCENARIOS = {
+        new Scenario("park vs park on a free spot",
+                Set.of("true, false, OCCUPIED", "false, true, OCCUPIED")) {
+            String actor1(ParkingSpot spot, Vehicle vehicle) {
+                return String.valueOf(spot.parkVehicle(vehicle));
+            }
+            
+            String actor2(ParkingSpot spot, Vehicle vehicle) {
+                return String.valueOf(spot.parkVehicle(vehicle));
+            }
+        },
+        new Scenario("park vs remove on a free spot",
+                Set.of("true, null, OCCUPIED", "true, vehicle, AVAILABLE")) {
+            String actor1(ParkingSpot spot, Vehicle vehicle) {
+                return String.valueOf(spot.parkVehicle(vehicle));
+            }
+            
+            String actor2(ParkingSpot spot, Vehicle vehicle) {
+                return spot.removeVehicle() == null ? "null" : "vehicle";
+            }
+        },
+        new Scenario("remove vs remove on an occupied spot",
+                Set.of("vehicle, null, AVAILABLE", "null, vehicle, AVAILABLE")) {
+            @Override
+            ParkingFloor newFloor() {
+                ParkingFloor floor = super.newFloor();
+                floor.getSpots().get(0).parkVehicle(new Car("KA-01-0001"));
+                return floor;
+            }
+            
+            String actor1(ParkingSpot spot, Vehicle vehicle) {
+                return spot.removeVehicle() == null ? "null" : "vehicle";
+            }
+            
+            String actor2(ParkingSpot spot, Vehicle vehicle) {
+                return spot.removeVehicle() == null ? "null" : "vehicle";
+            }
+        }
+    };
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = ParkingLotStressHarness.parseOptions(args);
+        int batches = Integer.parseInt(options.getOrDefault("batches", "200"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batchSize", "1000"));
+        
+        System.exit(runAll(batches, batchSize) ? 0 : 1);
+    }
+    
+    /**
+     * Runs every scenario and prints the outcome tables.
+     * 
+     * @return true if no scenario produced a forbidden outcome
+     */
+    static boolean runAll(int batches, int batchSize) throws Exception {
+        boolean passed = true;
+        for (Scenario scenario : SCENARIOS) {
+            passed &= run(scenario, batches, batchSize);
+        }
+        return passed;
+    }
+    
+    private static boolean run(Scenario scenario, int batches, int batchSize) throws Exception {
+        Map<String, Long> outcomes = new TreeMap<>();
+        Vehicle vehicle1 = new Car("KA-01-ACT1");
+        Vehicle vehicle2 = new Car("KA-01-ACT2");
+        
+        for (int batch = 0; batch < batches; batch++) {
+            ParkingSpot[] spots = new ParkingSpot[batchSize];
+            ParkingFloor[] floors = new ParkingFloor[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                floors[i] = scenario.newFloor();
+                spots[i] = floors[i].getSpots().get(0);
+            }
+            String[] results1 = new String[batchSize];
+            String[] results2 = new String[batchSize];
+            CyclicBarrier barrier = new CyclicBarrier(2);
+            
+            Thread actor1 = new Thread(() -> {
+                await(barrier);
+                for (int i = 0; i < batchSize; i++) {
+                    results1[i] = scenario.actor1(spots[i], vehicle1);
+                }
+            });
+            Thread actor2 = new Thread(() -> {
+                await(barrier);
+                for (int i = 0; i < batchSize; i++) {
+                    results2[i] = scenario.actor2(spots[i], vehicle2);
+                }
+            });
+            actor1.start();
+            actor2.start();
+            actor1.join();
+            actor2.join();
+            
+            for (int i = 0; i < batchSize; i++) {
+                String outcome = results1[i] + ", " + results2[i] + ", " + scenario.arbiter(spots[i], floors[i]);
+                outcomes.merge(outcome, 1L, Long::sum);
+            }
+        }
+        
+        boolean passed = scenario.acceptable.containsAll(outcomes.keySet());
+        System.out.println((passed ? "[OK]     " : "[FAILED] ") + scenario.name);
+        for (Map.Entry<String, Long> entry : outcomes.entrySet()) {
+            String grade = scenario.acceptable.contains(entry.getKey()) ? "ACCEPTABLE" : "FORBIDDEN";
+            System.out.printf("    %-45s %12d  %s%n", entry.getKey(), entry.getValue(), grade);
+        }
+        return passed;
+    }
+    
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}